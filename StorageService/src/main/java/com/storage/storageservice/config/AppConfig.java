@@ -1,6 +1,7 @@
 package com.storage.storageservice.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,8 +12,8 @@ import java.util.concurrent.Executors;
 public class AppConfig {
 
     @Bean
-    public ExecutorService executorService() {
-        return Executors.newFixedThreadPool(8);
+    public ExecutorService executorService(@Value("${app.executor.pool-size:8}") int poolSize) {
+        return Executors.newFixedThreadPool(poolSize);
     }
 
     @Bean
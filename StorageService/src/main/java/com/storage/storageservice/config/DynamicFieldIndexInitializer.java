@@ -0,0 +1,28 @@
+package com.storage.storageservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the prefix index on string dynamic fields. A plain B-tree serves {@code LIKE 'abc%'} only under
+ * the C collation, so the index uses {@code text_pattern_ops}; JPA can not declare an operator class.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class DynamicFieldIndexInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS dynamic_field_info_str_property_prefix_idx ON dynamic_field_info_str "
+                + "(property_type_id, property_value text_pattern_ops, dynamic_document_id)");
+        log.info("Prefix index ready on dynamic_field_info_str");
+    }
+}
@@ -0,0 +1,63 @@
+package com.storage.storageservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Adds a stored generated column and a B-tree index on the artifact table for every promoted payload key,
+ * then refreshes the planner statistics.
+ * <p>
+ * Adding a stored column rewrites the table, which is cheap at startup with {@code ddl-auto: create-drop};
+ * on a populated table new keys should be promoted in a maintenance window.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class PromotedPayloadColumnsInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PromotedPayloadProperties promotedPayloadProperties;
+
+    @PostConstruct
+    void init() {
+        if (promotedPayloadProperties.getFields().isEmpty()) {
+            return;
+        }
+        promotedPayloadProperties.getFields().forEach((key, type) -> {
+            String column = PromotedPayloadProperties.columnName(key);
+            jdbcTemplate.execute("ALTER TABLE artifact ADD COLUMN IF NOT EXISTS " + column + " "
+                    + type.name().toLowerCase(Locale.ROOT) + " GENERATED ALWAYS AS (" + expression(key, type) + ") STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS artifact_" + column + "_col_idx ON artifact (" + column + ")");
+            log.info("Promoted payload key {} to column {} {}", key, column, type);
+        });
+        jdbcTemplate.execute("ANALYZE artifact");
+    }
+
+    private static String expression(String key, PromotedPayloadProperties.ColumnType type) {
+        return switch (type) {
+            case TEXT -> "payload ->> '" + key + "'";
+            case BIGINT -> bigintExpression("(payload -> '" + key + "')");
+        };
+    }
+
+    /**
+     * Any JSON number with an integral value in the bigint range, so that {@code 5}, {@code 5.0} and
+     * {@code 5e0} all land as {@code 5}, exactly the values {@code payload @> '{"key": 5}'} matches.
+     * Strings and fractions stay {@code NULL}. The checks are nested because {@code AND} does not
+     * guarantee that the type check runs before the numeric cast.
+     */
+    private static String bigintExpression(String value) {
+        String number = value + "::numeric";
+        return "CASE WHEN jsonb_typeof" + value + " = 'number' THEN"
+                + " CASE WHEN " + number + " = trunc(" + number + ")"
+                + " AND " + number + " BETWEEN " + Long.MIN_VALUE + " AND " + Long.MAX_VALUE
+                + " THEN " + number + "::bigint END END";
+    }
+}
@@ -0,0 +1,80 @@
+package com.storage.storageservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Payload keys that are copied into typed, indexed columns {@code payload_<key>} of the artifact table.
+ * <pre>
+ * artifact:
+ *   promoted:
+ *     fields:
+ *       series: text
+ *       price: bigint
+ * </pre>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "artifact.promoted")
+public class PromotedPayloadProperties {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_]{1,40}");
+
+    private Map<String, ColumnType> fields = new LinkedHashMap<>();
+
+    @PostConstruct
+    void validate() {
+        fields.keySet().stream()
+                .filter(key -> !KEY_PATTERN.matcher(key).matches())
+                .findFirst()
+                .ifPresent(key -> {
+                    throw new IllegalStateException("Promoted payload key must match " + KEY_PATTERN + ": " + key);
+                });
+    }
+
+    public boolean isPromoted(String key) {
+        return fields.containsKey(key);
+    }
+
+    public ColumnType typeOf(String key) {
+        return fields.get(key);
+    }
+
+    /**
+     * @return column holding the key, or {@code null} if the key is not promoted or the value
+     * can not match the column type, e.g. a string compared with a bigint key
+     */
+    public String columnFor(String key, Object value) {
+        ColumnType type = fields.get(key);
+        if (type == null || !type.accepts(value)) {
+            return null;
+        }
+        return columnName(key);
+    }
+
+    public static String columnName(String key) {
+        return "payload_" + key.toLowerCase(Locale.ROOT);
+    }
+
+    public enum ColumnType {
+        TEXT,
+        BIGINT;
+
+        boolean accepts(Object value) {
+            return switch (this) {
+                case TEXT -> value instanceof String;
+                case BIGINT -> value instanceof Integer || value instanceof Long
+                        || value instanceof Short || value instanceof Byte;
+            };
+        }
+    }
+}
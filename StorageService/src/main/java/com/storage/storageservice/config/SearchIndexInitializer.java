@@ -0,0 +1,41 @@
+package com.storage.storageservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Enables {@code pg_trgm} and creates trigram GIN indexes on the searchable name columns, so prefix,
+ * substring and similarity search use a bitmap index scan instead of a sequential scan once the query
+ * yields trigrams, see {@link com.storage.storageservice.dao.SearchDao#MIN_TRIGRAM_QUERY_LENGTH}.
+ * <p>
+ * On a populated database the indexes should be built {@code CONCURRENTLY} in a maintenance window.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SearchIndexInitializer {
+
+    private static final List<String> TABLES = List.of("artifact", "document");
+    private static final List<String> COLUMNS = List.of("name", "surname");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        for (String table : TABLES) {
+            for (String column : COLUMNS) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + table + "_" + column + "_trgm_idx ON "
+                        + table + " USING gin (" + column + " gin_trgm_ops)");
+            }
+        }
+        log.info("Trigram search indexes ready on {}", TABLES);
+    }
+}
@@ -1,12 +1,25 @@
 package com.storage.storageservice.controller;
 
+import com.storage.storageservice.dto.ArtifactAggregationDto;
+import com.storage.storageservice.dto.ArtifactAggregationRequest;
+import com.storage.storageservice.dto.ArtifactCacheStatsDto;
 import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.ArtifactImportReportDto;
+import com.storage.storageservice.dto.ArtifactPageDto;
+import com.storage.storageservice.dto.CacheTierStatsDto;
+import com.storage.storageservice.dto.CustomArtifactBatchDto;
+import com.storage.storageservice.dto.CustomArtifactBatchRequest;
 import com.storage.storageservice.dto.CustomArtifactRequest;
+import com.storage.storageservice.dto.GenerationJobDto;
 import com.storage.storageservice.service.ArtifactService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -23,8 +36,23 @@ public class ArtifactController {
     }
 
     @PostMapping(value = "{count}/generate")
-    public void generateSomeArtifacts(@PathVariable int count) {
-        service.generateSomeArtifacts(count);
+    public ResponseEntity<UUID> generateSomeArtifacts(@PathVariable int count) {
+        return ResponseEntity.ok(service.generateSomeArtifacts(count));
+    }
+
+    @GetMapping("generate/{jobId}")
+    public ResponseEntity<GenerationJobDto> getGenerationJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(service.getGenerationJob(jobId));
+    }
+
+    @PostMapping(value = "bulk")
+    public ResponseEntity<Long> bulkInsert(@RequestBody List<ArtifactDto> request) {
+        return ResponseEntity.ok(service.bulkInsert(request));
+    }
+
+    @PostMapping(value = "import", consumes = "application/x-ndjson")
+    public ResponseEntity<ArtifactImportReportDto> importNdjson(InputStream body) {
+        return ResponseEntity.ok(service.importNdjson(body));
     }
 
     @GetMapping
@@ -42,15 +70,77 @@ public class ArtifactController {
         return ResponseEntity.ok(artByJsonName);
     }
 
+    @GetMapping("page")
+    public ResponseEntity<ArtifactPageDto> getPageByJsonField(
+            @RequestParam String key,
+            @RequestParam String value,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(service.getPageByJsonField(key, value, cursor, limit));
+    }
+
+    @GetMapping("range")
+    public ResponseEntity<ArtifactPageDto> getPageByRange(
+            @RequestParam String key,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(service.getPageByRange(key, from, to, cursor, limit));
+    }
+
+    @PostMapping("aggregate")
+    public ResponseEntity<ArtifactAggregationDto> aggregate(@RequestBody ArtifactAggregationRequest request) {
+        return ResponseEntity.ok(service.aggregate(request));
+    }
+
+    @PostMapping("json/page")
+    public ResponseEntity<ArtifactPageDto> getPageByNativeJsonFields(
+            @RequestBody Map<String, Object> request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(service.getPageByNativeJsonFields(request, cursor, limit));
+    }
+
+    @PostMapping(value = "json/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamByNativeJsonFields(@RequestBody Map<String, Object> request) {
+        StreamingResponseBody body = out -> service.streamByNativeJsonFields(request, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping("customFields")
     public ResponseEntity<ArtifactDto> getCustomRequestById(@RequestBody CustomArtifactRequest request) {
        ArtifactDto response = service.getCustomById(request);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("customFields/batch")
+    public ResponseEntity<CustomArtifactBatchDto> getCustomRequestByIds(@RequestBody CustomArtifactBatchRequest request) {
+        return ResponseEntity.ok(service.getCustomByIds(request));
+    }
+
+    @GetMapping("customFields/stats")
+    public ResponseEntity<CacheTierStatsDto> getProjectionPlanStats() {
+        return ResponseEntity.ok(service.getProjectionPlanStats());
+    }
+
     @GetMapping("getById")
-    public ResponseEntity<ArtifactDto> getById(@RequestParam UUID id) {
-        ArtifactDto response = service.getById(id);
+    public ResponseEntity<ArtifactDto> getById(@RequestParam UUID id,
+                                               @RequestParam(required = false) Integer depth) {
+        ArtifactDto response = service.getById(id, depth);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("getByIds")
+    public ResponseEntity<List<ArtifactDto>> getByIds(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(service.getByIds(ids));
+    }
+
+    @GetMapping("cache/stats")
+    public ResponseEntity<ArtifactCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(service.getCacheStats());
+    }
 }
@@ -1,13 +1,23 @@
 package com.storage.storageservice.controller;
 
+import com.storage.storageservice.dto.DynamicDocumentBulkReportDto;
+import com.storage.storageservice.dto.DynamicDocumentBulkRequest;
 import com.storage.storageservice.dto.DynamicDocumentDto;
+import com.storage.storageservice.dto.DynamicDocumentPageDto;
+import com.storage.storageservice.dto.DynamicDocumentQueryRequest;
 import com.storage.storageservice.service.DynamicDocumentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("api/v2/dd")
 @RequiredArgsConstructor
@@ -20,4 +30,25 @@ public class DynamicDocumentController {
     public void addNewDocument(@RequestBody DynamicDocumentDto request) {
         service.addNewDocument(request);
     }
+
+    @PostMapping("bulk")
+    public ResponseEntity<DynamicDocumentBulkReportDto> addDocuments(@RequestBody DynamicDocumentBulkRequest request) {
+        return ResponseEntity.ok(service.addDocuments(request));
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<DynamicDocumentPageDto.Item> getDocument(@PathVariable UUID id) {
+        return ResponseEntity.ok(service.getDocument(id));
+    }
+
+    @GetMapping
+    public ResponseEntity<DynamicDocumentPageDto> getPage(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.getPage(cursor, limit));
+    }
+
+    @PostMapping("query")
+    public ResponseEntity<DynamicDocumentPageDto> query(@RequestBody DynamicDocumentQueryRequest request) {
+        return ResponseEntity.ok(service.query(request));
+    }
 }
@@ -0,0 +1,28 @@
+package com.storage.storageservice.controller;
+
+import com.storage.storageservice.dto.PayloadIndexAdviceDto;
+import com.storage.storageservice.service.PayloadIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("api/v2/admin/payloadIndex")
+@RequiredArgsConstructor
+public class PayloadIndexController {
+
+    private final PayloadIndexService payloadIndexService;
+
+    @GetMapping
+    public ResponseEntity<List<PayloadIndexAdviceDto>> getAdvice() {
+        return ResponseEntity.ok(payloadIndexService.getAdvice());
+    }
+
+    @PostMapping("apply")
+    public ResponseEntity<Map<String, String>> apply(@RequestBody(required = false) List<String> indexNames) {
+        return ResponseEntity.ok(payloadIndexService.apply(indexNames == null ? List.of() : indexNames));
+    }
+}
@@ -0,0 +1,26 @@
+package com.storage.storageservice.controller;
+
+import com.storage.storageservice.dto.SearchPageDto;
+import com.storage.storageservice.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/v2/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<SearchPageDto> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "PREFIX") SearchPageDto.Mode mode,
+            @RequestParam(defaultValue = "ALL") SearchPageDto.Scope scope,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset
+    ) {
+        return ResponseEntity.ok(searchService.search(q, mode, scope, limit, offset));
+    }
+}
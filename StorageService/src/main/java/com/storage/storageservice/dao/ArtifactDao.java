@@ -1,4 +1,68 @@
 package com.storage.storageservice.dao;
 
+import com.storage.storageservice.dto.ArtifactAggregationDto;
+import com.storage.storageservice.model.Artifact;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
 public interface ArtifactDao {
+
+    /**
+     * Streams the given rows into the artifact table with PostgreSQL COPY.
+     * Rows must already carry their ids and parents must precede their children.
+     *
+     * @return number of rows written
+     */
+    long copyIn(List<Artifact> rows);
+
+    /**
+     * Inserts the given rows as one JDBC batch, which the driver rewrites into multi-row INSERTs.
+     * Rows must already carry their ids and their parents must already be written.
+     */
+    void batchInsert(List<Artifact> rows);
+
+    /**
+     * Returns up to {@code limit} artifacts whose payload contains {@code filter}, ordered by id
+     * and starting after {@code afterId} when it is given. Promoted keys of the filter are also
+     * matched against their columns, so their B-tree indexes can be used.
+     * Only id, name, surname and payload are read; parent, children and employee stay empty.
+     */
+    List<Artifact> findPageByJson(Map<String, ?> filter, UUID afterId, int limit);
+
+    /**
+     * Passes every artifact whose payload contains {@code filter} to {@code consumer} while reading
+     * a forward-only cursor {@code fetchSize} rows at a time. Must run inside a transaction, otherwise
+     * the driver reads the whole result at once. Rows are filled as in {@link #findPageByJson}.
+     */
+    void streamByJson(Map<String, ?> filter, int fetchSize, Consumer<Artifact> consumer);
+
+    /**
+     * Returns up to {@code limit} artifacts whose promoted bigint {@code key} lies within
+     * {@code [from, to]} (open ends when {@code null}), ordered by id and starting after {@code afterId}.
+     */
+    List<Artifact> findPageByRange(String key, Long from, Long to, UUID afterId, int limit);
+
+    /**
+     * Groups the artifacts matching {@code filter} (all of them when it is empty) by the payload keys
+     * and aggregates the numeric {@code metric} key, in one {@code GROUP BY} query.
+     * Returns at most {@code limit} groups ordered by key values.
+     */
+    List<ArtifactAggregationDto.Group> aggregate(List<String> groupBy, String metric, Map<String, ?> filter, int limit);
+
+    /**
+     * Reads the given artifacts filled as in {@link #findPageByJson}, in no particular order; unknown ids are skipped.
+     */
+    List<Artifact> findByIds(Collection<UUID> ids);
+
+    /**
+     * Loads the given artifacts with their descendants up to {@code maxDepth} levels below them
+     * (0 reads the roots only) and their employees, using a single recursive query.
+     * Parent links are set from within each tree; roots are returned in no particular order,
+     * unknown ids are skipped.
+     */
+    List<Artifact> findSubtrees(Collection<UUID> rootIds, int maxDepth);
 }
@@ -1,4 +1,376 @@
 package com.storage.storageservice.dao;
 
-public class ArtifactDaoImpl implements ArtifactDao{
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storage.storageservice.config.PromotedPayloadProperties;
+import com.storage.storageservice.dto.ArtifactAggregationDto;
+import com.storage.storageservice.model.AbstractEntity;
+import com.storage.storageservice.model.Artifact;
+import com.storage.storageservice.model.Employee;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Repository
+@RequiredArgsConstructor
+public class ArtifactDaoImpl implements ArtifactDao {
+
+    private static final String COPY_SQL = """
+            COPY artifact (id, version, name, surname, payload, parent_id, employee_id)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+    private static final String INSERT_SQL = """
+            INSERT INTO artifact (id, version, name, surname, payload, parent_id, employee_id)
+            VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, ?)
+            """;
+    private static final String SELECT_SQL = "SELECT id, name, surname, payload FROM artifact WHERE ";
+    private static final String SUBTREES_SQL = """
+            WITH RECURSIVE tree AS (
+                SELECT a.id AS root_id, a.id, a.name, a.surname, a.payload, a.parent_id, a.employee_id, 0 AS depth
+                FROM artifact a
+                WHERE a.id = ANY (?)
+                UNION ALL
+                SELECT t.root_id, c.id, c.name, c.surname, c.payload, c.parent_id, c.employee_id, t.depth + 1
+                FROM artifact c
+                JOIN tree t ON c.parent_id = t.id
+                WHERE t.depth < ?
+            )
+            SELECT t.root_id, t.id, t.name, t.surname, t.payload, t.parent_id, t.depth,
+                   e.id AS employee_id, e.name AS employee_name, e.surname AS employee_surname
+            FROM tree t
+            LEFT JOIN employee e ON e.id = t.employee_id
+            ORDER BY t.root_id, t.depth
+            """;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final PromotedPayloadProperties promotedPayloadProperties;
+
+    @Override
+    public long copyIn(List<Artifact> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        // ConnectionCallback берёт соединение текущей транзакции, COPY идёт в ней же
+        Long written = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            PGCopyOutputStream copy = new PGCopyOutputStream(con.unwrap(PGConnection.class), COPY_SQL, COPY_BUFFER_SIZE);
+            try {
+                Writer out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+                for (Artifact row : rows) {
+                    writeRow(out, row);
+                }
+                out.flush();
+                return copy.endCopy();
+            } catch (IOException e) {
+                throw new SQLException("COPY into artifact failed", e);
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        return written == null ? 0 : written;
+    }
+
+    @Override
+    public void batchInsert(List<Artifact> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.getId());
+            ps.setLong(2, row.getVersion() == null ? 0L : row.getVersion());
+            ps.setString(3, row.getName());
+            ps.setString(4, row.getSurname());
+            ps.setString(5, toJson(row));
+            ps.setObject(6, idOf(row.getParent()));
+            ps.setObject(7, idOf(row.getEmployee()));
+        });
+    }
+
+    /**
+     * Через JDBC, а не репозиторий: у Artifact parent и employee грузятся EAGER, на странице это N+1.
+     */
+    @Override
+    public List<Artifact> findPageByJson(Map<String, ?> filter, UUID afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        String where = jsonCondition(filter, args);
+        return findPage(where, args, afterId, limit);
+    }
+
+    @Override
+    public void streamByJson(Map<String, ?> filter, int fetchSize, Consumer<Artifact> consumer) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_SQL + jsonCondition(filter, args);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    @Override
+    public List<Artifact> findPageByRange(String key, Long from, Long to, UUID afterId, int limit) {
+        if (promotedPayloadProperties.typeOf(key) != PromotedPayloadProperties.ColumnType.BIGINT) {
+            throw new IllegalArgumentException("Payload key %s is not a promoted bigint key".formatted(key));
+        }
+        String column = PromotedPayloadProperties.columnName(key);
+        List<Object> args = new ArrayList<>();
+        StringBuilder where = new StringBuilder(column).append(" IS NOT NULL");
+        if (from != null) {
+            where.append(" AND ").append(column).append(" >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            where.append(" AND ").append(column).append(" <= ?");
+            args.add(to);
+        }
+        return findPage(where.toString(), args, afterId, limit);
+    }
+
+    private List<Artifact> findPage(String where, List<Object> args, UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append(where);
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapRow(rs), args.toArray());
+    }
+
+    /**
+     * Containment stays the exact condition; promoted keys add an equality on their column,
+     * which the planner can serve from the column index and estimate from its statistics.
+     * The column holds the canonical value of every payload the containment matches, so the
+     * extra equality never drops a row; values the column can not represent, like fractions
+     * or numbers beyond {@code long}, are filtered by containment alone.
+     */
+    private String jsonCondition(Map<String, ?> filter, List<Object> args) {
+        StringBuilder where = new StringBuilder("payload @> CAST(? AS jsonb)");
+        args.add(toJson(filter));
+        filter.forEach((key, value) -> {
+            String column = promotedPayloadProperties.columnFor(key, value);
+            if (column != null) {
+                where.append(" AND ").append(column).append(" = ?");
+                args.add(value instanceof Number number ? number.longValue() : value);
+            }
+        });
+        return where.toString();
+    }
+
+    /**
+     * Ключи идут параметрами, поэтому группируем по псевдонимам подзапроса, а не по повторённым выражениям.
+     */
+    @Override
+    public List<ArtifactAggregationDto.Group> aggregate(List<String> groupBy, String metric, Map<String, ?> filter, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder inner = new StringBuilder("SELECT ");
+        for (int i = 0; i < groupBy.size(); i++) {
+            inner.append(groupExpression(groupBy.get(i), args)).append(" AS g").append(i).append(", ");
+        }
+        if (metric == null) {
+            inner.append("NULL::numeric");
+        } else {
+            // Строки и прочие не-числа в метрику не попадают
+            inner.append("CASE WHEN jsonb_typeof(payload -> ?) = 'number' THEN (payload ->> ?)::numeric END");
+            args.add(metric);
+            args.add(metric);
+        }
+        inner.append(" AS v FROM artifact");
+        if (filter != null && !filter.isEmpty()) {
+            inner.append(" WHERE ").append(jsonCondition(filter, args));
+        }
+
+        String groups = IntStream.range(0, groupBy.size())
+                .mapToObj(i -> "g" + i)
+                .collect(Collectors.joining(", "));
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (!groups.isEmpty()) {
+            sql.append(groups).append(", ");
+        }
+        sql.append("count(*) AS count, count(v) AS metric_count, sum(v) AS sum, min(v) AS min, max(v) AS max, avg(v) AS avg")
+                .append(" FROM (").append(inner).append(") s");
+        if (!groups.isEmpty()) {
+            sql.append(" GROUP BY ").append(groups).append(" ORDER BY ").append(groups);
+        }
+        sql.append(" LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Map<String, Object> key = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                key.put(groupBy.get(i), rs.getString("g" + i));
+            }
+            return ArtifactAggregationDto.Group.builder()
+                    .key(key)
+                    .count(rs.getLong("count"))
+                    .metricCount(rs.getLong("metric_count"))
+                    .sum(rs.getBigDecimal("sum"))
+                    .min(rs.getBigDecimal("min"))
+                    .max(rs.getBigDecimal("max"))
+                    .avg(rs.getBigDecimal("avg"))
+                    .build();
+        }, args.toArray());
+    }
+
+    /**
+     * Promoted text keys are read from their column, which holds the same value without parsing the jsonb.
+     */
+    private String groupExpression(String key, List<Object> args) {
+        if (promotedPayloadProperties.typeOf(key) == PromotedPayloadProperties.ColumnType.TEXT) {
+            return PromotedPayloadProperties.columnName(key);
+        }
+        args.add(key);
+        return "payload ->> ?";
+    }
+
+    @Override
+    public List<Artifact> findByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SQL + "id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> mapRow(rs));
+    }
+
+    @Override
+    public List<Artifact> findSubtrees(Collection<UUID> rootIds, int maxDepth) {
+        if (rootIds.isEmpty()) {
+            return List.of();
+        }
+        List<Artifact> roots = new ArrayList<>();
+        // Ключ - корень и узел: один и тот же узел может попасть в несколько запрошенных поддеревьев
+        Map<List<UUID>, Artifact> nodes = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SUBTREES_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", rootIds.toArray()));
+            ps.setInt(2, maxDepth);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            UUID rootId = rs.getObject("root_id", UUID.class);
+            Artifact artifact = mapRow(rs);
+            UUID employeeId = rs.getObject("employee_id", UUID.class);
+            if (employeeId != null) {
+                artifact.setEmployee(Employee.builder()
+                        .id(employeeId)
+                        .name(rs.getString("employee_name"))
+                        .surname(rs.getString("employee_surname"))
+                        .build());
+            }
+            nodes.put(List.of(rootId, artifact.getId()), artifact);
+            if (rs.getInt("depth") == 0) {
+                roots.add(artifact);
+            } else {
+                // Строки упорядочены по глубине, родитель уже прочитан
+                nodes.get(List.of(rootId, rs.getObject("parent_id", UUID.class))).addChild(artifact);
+            }
+        });
+        return roots;
+    }
+
+    private Artifact mapRow(ResultSet rs) throws SQLException {
+        return Artifact.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .surname(rs.getString("surname"))
+                .payload(fromJson(rs.getString("payload")))
+                .build();
+    }
+
+    private void writeRow(Writer out, Artifact row) throws IOException {
+        out.write(row.getId().toString());
+        out.write(',');
+        out.write(String.valueOf(row.getVersion() == null ? 0L : row.getVersion()));
+        out.write(',');
+        writeText(out, row.getName());
+        out.write(',');
+        writeText(out, row.getSurname());
+        out.write(',');
+        writeText(out, toJson(row));
+        out.write(',');
+        writeId(out, row.getParent());
+        out.write(',');
+        writeId(out, row.getEmployee());
+        out.write('\n');
+    }
+
+    /**
+     * В CSV-режиме COPY пустое поле без кавычек - это NULL, поэтому строки всегда пишем в кавычках.
+     */
+    private static void writeText(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static void writeId(Writer out, AbstractEntity entity) throws IOException {
+        UUID id = idOf(entity);
+        if (id != null) {
+            out.write(id.toString());
+        }
+    }
+
+    private static UUID idOf(AbstractEntity entity) {
+        return entity == null ? null : entity.getId();
+    }
+
+    private String toJson(Artifact row) {
+        return row.getPayload() == null ? null : toJson(row.getPayload());
+    }
+
+    private String toJson(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.storage.storageservice.dao;
+
+import com.storage.storageservice.dto.DynamicDocumentPageDto;
+import com.storage.storageservice.dto.DynamicDocumentQueryRequest.Operator;
+import com.storage.storageservice.model.DynamicDocument;
+import com.storage.storageservice.model.FieldContentType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DynamicDocumentDao {
+
+    /**
+     * Writes the documents and their fields of every type with PostgreSQL COPY in the current transaction.
+     * Ids and versions must already be set; field rows only need the id of their property type.
+     *
+     * @return number of field rows written
+     */
+    long copyIn(List<DynamicDocument> documents);
+
+    /**
+     * Returns up to {@code limit} documents matching all conditions, ordered by id and starting after
+     * {@code afterId} when it is given. Fields of the items come from the snapshot column and are
+     * {@code null} for documents written before it existed, see {@link #findFields}.
+     */
+    List<DynamicDocumentPageDto.Item> findPage(List<FieldCondition> conditions, UUID afterId, int limit);
+
+    /**
+     * Document with its field snapshot, read from a single row.
+     */
+    Optional<DynamicDocumentPageDto.Item> findById(UUID id);
+
+    /**
+     * Same as {@link #findPage(List, UUID, int)} without conditions: every document, ordered by id.
+     */
+    List<DynamicDocumentPageDto.Item> findPage(UUID afterId, int limit);
+
+    /**
+     * Fields of every type of the given documents, pivoted from the field tables into property name
+     * to value per document.
+     */
+    Map<UUID, Map<String, Object>> findFields(Collection<UUID> documentIds);
+
+    /**
+     * Condition on one property, with values already converted to the column type of {@code contentType}.
+     * EQ and PREFIX take one value, IN one or more, RANGE the lower and the upper bound, either may be {@code null}.
+     */
+    record FieldCondition(UUID propertyTypeId, FieldContentType contentType, Operator operator, List<Object> values) {
+    }
+}
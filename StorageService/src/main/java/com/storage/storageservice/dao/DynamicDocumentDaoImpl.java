@@ -0,0 +1,389 @@
+package com.storage.storageservice.dao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storage.storageservice.dto.DynamicDocumentPageDto;
+import com.storage.storageservice.model.DynamicDocument;
+import com.storage.storageservice.model.DynamicFieldInfoCommon;
+import com.storage.storageservice.model.FieldContentType;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class DynamicDocumentDaoImpl implements DynamicDocumentDao {
+
+    private static final String COPY_DOCUMENTS_SQL = """
+            COPY dynamic_documents (id, version, name, surname, create_date_time, fields)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+    private static final String COPY_FIELDS_SQL = """
+            COPY %s (id, version, dynamic_document_id, property_type_id, property_value)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+    private static final Map<FieldContentType, String> FIELD_TABLES = new EnumMap<>(Map.of(
+            FieldContentType.STRING, "dynamic_field_info_str",
+            FieldContentType.NUMBER, "dynamic_field_info_long",
+            FieldContentType.DECIMAL, "dynamic_field_info_decimal",
+            FieldContentType.BOOLEAN, "dynamic_field_info_bool",
+            FieldContentType.TIMESTAMP, "dynamic_field_info_timestamp"));
+    /**
+     * Fields of all tables in one statement: each table fills the value column of its own type.
+     */
+    private static final String FIELDS_SQL = FIELD_TABLES.entrySet().stream()
+            .map(table -> """
+                    SELECT f.dynamic_document_id, p.property_name, %s
+                    FROM %s f
+                    JOIN property_type p ON p.id = f.property_type_id
+                    WHERE f.dynamic_document_id = ANY (?)
+                    """.formatted(valueColumns(table.getKey()), table.getValue()))
+            .collect(Collectors.joining("UNION ALL\n"));
+    private static final String SELECT_SQL = "SELECT d.id, d.name, d.surname, d.fields FROM dynamic_documents d ";
+    private static final TypeReference<Map<String, Object>> FIELDS_TYPE = new TypeReference<>() {
+    };
+    private static final Comparator<FieldCondition> SELECTIVITY = Comparator
+            .comparingInt(DynamicDocumentDaoImpl::selectivityRank)
+            .thenComparingInt(DynamicDocumentDaoImpl::selectivityTieBreak);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public long copyIn(List<DynamicDocument> documents) {
+        if (documents.isEmpty()) {
+            return 0;
+        }
+        Map<FieldContentType, List<DynamicFieldInfoCommon<?>>> fieldsByType = documents.stream()
+                .flatMap(DynamicDocument::dynamicFields)
+                .collect(Collectors.groupingBy(FieldContentType::of, () -> new EnumMap<>(FieldContentType.class), Collectors.toList()));
+        // Все COPY идут в транзакции вызывающего: документы без полей не останутся при ошибке
+        Long written = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            copy(con, COPY_DOCUMENTS_SQL, out -> {
+                for (DynamicDocument document : documents) {
+                    writeDocument(out, document);
+                }
+            });
+            long rows = 0;
+            for (Map.Entry<FieldContentType, List<DynamicFieldInfoCommon<?>>> entry : fieldsByType.entrySet()) {
+                rows += copy(con, COPY_FIELDS_SQL.formatted(FIELD_TABLES.get(entry.getKey())), out -> {
+                    for (DynamicFieldInfoCommon<?> field : entry.getValue()) {
+                        writeField(out, field);
+                    }
+                });
+            }
+            return rows;
+        });
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * The condition expected to be the most selective becomes the IN subquery served by its value index,
+     * the others become EXISTS probes through the document index; PostgreSQL may still reorder the semi-joins
+     * by its own estimates. Value statistics are not consulted here: equality is assumed to be narrower than
+     * a prefix, a prefix narrower than a range, and a boolean to split documents in halves.
+     */
+    @Override
+    public List<DynamicDocumentPageDto.Item> findPage(List<FieldCondition> conditions, UUID afterId, int limit) {
+        List<FieldCondition> ordered = conditions.stream()
+                .sorted(SELECTIVITY)
+                .toList();
+        List<Object> args = new ArrayList<>();
+        FieldCondition driving = ordered.getFirst();
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append("WHERE d.id IN (")
+                .append("SELECT f0.dynamic_document_id FROM ").append(FIELD_TABLES.get(driving.contentType()))
+                .append(" f0 WHERE ").append(condition("f0", driving, args));
+        if (afterId != null) {
+            sql.append(" AND f0.dynamic_document_id > ?");
+            args.add(afterId);
+        }
+        sql.append(')');
+        for (int i = 1; i < ordered.size(); i++) {
+            String alias = "f" + i;
+            FieldCondition condition = ordered.get(i);
+            sql.append(" AND EXISTS (SELECT 1 FROM ").append(FIELD_TABLES.get(condition.contentType())).append(' ').append(alias)
+                    .append(" WHERE ").append(alias).append(".dynamic_document_id = d.id AND ")
+                    .append(condition(alias, condition, args)).append(')');
+        }
+        if (afterId != null) {
+            sql.append(" AND d.id > ?");
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY d.id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), this::mapItem, args.toArray());
+    }
+
+    @Override
+    public Optional<DynamicDocumentPageDto.Item> findById(UUID id) {
+        return jdbcTemplate.query(SELECT_SQL + "WHERE d.id = ?", this::mapItem, id).stream().findFirst();
+    }
+
+    @Override
+    public List<DynamicDocumentPageDto.Item> findPage(UUID afterId, int limit) {
+        if (afterId == null) {
+            return jdbcTemplate.query(SELECT_SQL + "ORDER BY d.id LIMIT ?", this::mapItem, limit);
+        }
+        return jdbcTemplate.query(SELECT_SQL + "WHERE d.id > ? ORDER BY d.id LIMIT ?", this::mapItem, afterId, limit);
+    }
+
+    @Override
+    public Map<UUID, Map<String, Object>> findFields(Collection<UUID> documentIds) {
+        Map<UUID, Map<String, Object>> fields = new HashMap<>();
+        if (documentIds.isEmpty()) {
+            return fields;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FIELDS_SQL);
+            Array ids = con.createArrayOf("uuid", documentIds.toArray());
+            for (int i = 1; i <= FIELD_TABLES.size(); i++) {
+                ps.setArray(i, ids);
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            Map<String, Object> document = fields.computeIfAbsent(rs.getObject("dynamic_document_id", UUID.class),
+                    id -> new LinkedHashMap<>());
+            String name = rs.getString("property_name");
+            Object value = fieldValue(rs);
+            // merge не подходит: значение поля может быть null
+            document.put(name, document.containsKey(name) ? appendValue(document.get(name), value) : value);
+        });
+        return fields;
+    }
+
+    private static long copy(Connection con, String sql, RowWriter rows) throws SQLException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(con.unwrap(PGConnection.class), sql, COPY_BUFFER_SIZE);
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+            rows.write(out);
+            out.flush();
+            return copy.endCopy();
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + sql.strip(), e);
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private DynamicDocumentPageDto.Item mapItem(ResultSet rs, int rowNum) throws SQLException {
+        return DynamicDocumentPageDto.Item.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .surname(rs.getString("surname"))
+                .fields(fromJson(rs.getString("fields")))
+                .build();
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readerFor(FIELDS_TYPE)
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String toJson(Map<String, Object> fields) {
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeDocument(Writer out, DynamicDocument document) throws IOException {
+        out.write(document.getId().toString());
+        out.write(',');
+        out.write(String.valueOf(document.getVersion() == null ? 0L : document.getVersion()));
+        out.write(',');
+        writeText(out, document.getName());
+        out.write(',');
+        writeText(out, document.getSurname());
+        out.write(',');
+        out.write(document.getCreateDateTime().toString());
+        out.write(',');
+        writeText(out, document.getFields() == null ? null : toJson(document.getFields()));
+        out.write('\n');
+    }
+
+    private static void writeField(Writer out, DynamicFieldInfoCommon<?> field) throws IOException {
+        out.write(field.getId().toString());
+        out.write(',');
+        out.write(String.valueOf(field.getVersion() == null ? 0L : field.getVersion()));
+        out.write(',');
+        out.write(field.getDynamicDocument().getId().toString());
+        out.write(',');
+        out.write(field.getPropertyType().getId().toString());
+        out.write(',');
+        switch (field.getPropertyValue()) {
+            case null -> {
+            }
+            case String text -> writeText(out, text);
+            case BigDecimal decimal -> out.write(decimal.toPlainString());
+            // Long, Boolean и LocalDateTime в ISO-записи PostgreSQL разбирает сам
+            default -> out.write(field.getPropertyValue().toString());
+        }
+        out.write('\n');
+    }
+
+    /**
+     * В CSV-режиме COPY пустое поле без кавычек - это NULL, поэтому строки всегда пишем в кавычках.
+     */
+    private static void writeText(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static String condition(String alias, FieldCondition condition, List<Object> args) {
+        StringBuilder sql = new StringBuilder(alias).append(".property_type_id = ?");
+        args.add(condition.propertyTypeId());
+        String value = alias + ".property_value";
+        List<Object> values = condition.values();
+        switch (condition.operator()) {
+            case EQ -> {
+                sql.append(" AND ").append(value).append(" = ?");
+                args.add(values.getFirst());
+            }
+            case IN -> {
+                sql.append(" AND ").append(value).append(" IN (")
+                        .append(String.join(", ", Collections.nCopies(values.size(), "?"))).append(')');
+                args.addAll(values);
+            }
+            case RANGE -> {
+                if (values.get(0) != null) {
+                    sql.append(" AND ").append(value).append(" >= ?");
+                    args.add(values.get(0));
+                }
+                if (values.get(1) != null) {
+                    sql.append(" AND ").append(value).append(" < ?");
+                    args.add(values.get(1));
+                }
+            }
+            case PREFIX -> {
+                sql.append(" AND ").append(value).append(" LIKE ?");
+                args.add(escapeLike((String) values.getFirst()) + "%");
+            }
+        }
+        return sql.toString();
+    }
+
+    private static int selectivityRank(FieldCondition condition) {
+        if (condition.contentType() == FieldContentType.BOOLEAN) {
+            return 5;
+        }
+        return switch (condition.operator()) {
+            case EQ -> 0;
+            case IN -> 1;
+            case PREFIX -> 2;
+            case RANGE -> condition.values().contains(null) ? 4 : 3;
+        };
+    }
+
+    /**
+     * Within a rank fewer IN values and longer prefixes come first.
+     */
+    private static int selectivityTieBreak(FieldCondition condition) {
+        return switch (condition.operator()) {
+            case IN -> condition.values().size();
+            case PREFIX -> -((String) condition.values().getFirst()).length();
+            default -> 0;
+        };
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String valueColumns(FieldContentType contentType) {
+        return FIELD_TABLES.keySet().stream()
+                .map(type -> (type == contentType ? "f.property_value" : "CAST(NULL AS " + sqlType(type) + ")")
+                        + " AS " + valueColumn(type))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Ветки UNION должны совпадать по типам колонок, а нетипизированный NULL считается text.
+     */
+    private static String sqlType(FieldContentType contentType) {
+        return switch (contentType) {
+            case STRING -> "varchar";
+            case NUMBER -> "bigint";
+            case DECIMAL -> "numeric";
+            case BOOLEAN -> "boolean";
+            case TIMESTAMP -> "timestamp";
+        };
+    }
+
+    private static String valueColumn(FieldContentType contentType) {
+        return "value_" + contentType.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static Object fieldValue(ResultSet rs) throws SQLException {
+        for (FieldContentType type : FIELD_TABLES.keySet()) {
+            Object value = type == FieldContentType.TIMESTAMP
+                    ? rs.getObject(valueColumn(type), LocalDateTime.class)
+                    : rs.getObject(valueColumn(type));
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object appendValue(Object existing, Object value) {
+        // Значения полей скалярные, так что список здесь может быть только нашим
+        List<Object> values = existing instanceof List<?> list
+                ? (List<Object>) list
+                : new ArrayList<>(Collections.singletonList(existing));
+        values.add(value);
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer out) throws IOException;
+    }
+}
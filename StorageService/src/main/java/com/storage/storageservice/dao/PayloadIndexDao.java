@@ -0,0 +1,17 @@
+package com.storage.storageservice.dao;
+
+import java.util.Map;
+
+public interface PayloadIndexDao {
+
+    /**
+     * @return definitions of the indexes on the artifact table by index name
+     */
+    Map<String, String> findArtifactIndexes();
+
+    /**
+     * Runs a {@code CREATE INDEX CONCURRENTLY} statement. Must not be called inside a transaction.
+     * An index left invalid by a failed build is dropped again before the error is rethrown.
+     */
+    void createConcurrently(String indexName, String ddl);
+}
@@ -0,0 +1,40 @@
+package com.storage.storageservice.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class PayloadIndexDaoImpl implements PayloadIndexDao {
+
+    private static final String FIND_INDEXES_SQL = """
+            SELECT indexname, indexdef FROM pg_indexes
+            WHERE schemaname = current_schema() AND tablename = 'artifact'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, String> findArtifactIndexes() {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query(FIND_INDEXES_SQL, rs -> {
+            indexes.put(rs.getString("indexname"), rs.getString("indexdef"));
+        });
+        return indexes;
+    }
+
+    @Override
+    public void createConcurrently(String indexName, String ddl) {
+        try {
+            jdbcTemplate.execute(ddl);
+        } catch (RuntimeException e) {
+            // Прерванный CREATE INDEX CONCURRENTLY оставляет INVALID-индекс, который мешает повтору
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.storage.storageservice.dao;
+
+import com.storage.storageservice.dto.SearchHitDto;
+import com.storage.storageservice.dto.SearchPageDto;
+
+import java.util.List;
+
+public interface SearchDao {
+
+    /**
+     * Shortest substring or similarity query that yields a trigram the index can narrow the scan with.
+     */
+    int MIN_TRIGRAM_QUERY_LENGTH = 3;
+
+    /**
+     * Finds artifacts and/or documents whose name or surname matches {@code query}, ranked by trigram
+     * similarity. A prefix shorter than {@link #MIN_TRIGRAM_QUERY_LENGTH} matches too many rows to rank,
+     * its hits are ordered by name instead. Only id, name and surname are read.
+     */
+    List<SearchHitDto> search(String query, SearchPageDto.Mode mode, SearchPageDto.Scope scope, int limit, int offset);
+}
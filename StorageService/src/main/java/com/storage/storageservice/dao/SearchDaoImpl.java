@@ -0,0 +1,99 @@
+package com.storage.storageservice.dao;
+
+import com.storage.storageservice.dto.SearchHitDto;
+import com.storage.storageservice.dto.SearchPageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Conditions are served by the {@code gin_trgm_ops} indexes on name and surname,
+ * see {@link com.storage.storageservice.config.SearchIndexInitializer}. The index only narrows the scan
+ * when the query yields trigrams, so substring and similarity queries must have at least
+ * {@link SearchDao#MIN_TRIGRAM_QUERY_LENGTH} characters; a shorter prefix still gets the trigrams of the word start.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchDaoImpl implements SearchDao {
+
+    private static final String ARTIFACT_SQL = "SELECT 'ARTIFACT' AS kind, t.id, t.name, t.surname, %s AS score FROM artifact t WHERE %s";
+    // Подтип документа по JOINED-наследованию: по первичному ключу таблицы наследника
+    private static final String DOCUMENT_SQL = """
+            SELECT CASE WHEN c.id IS NOT NULL THEN 'CONTRACT' WHEN i.id IS NOT NULL THEN 'INSURANCE' ELSE 'DOCUMENT' END AS kind,
+                   t.id, t.name, t.surname, %s AS score
+            FROM document t
+            LEFT JOIN contract c ON c.id = t.id
+            LEFT JOIN insurance i ON i.id = t.id
+            WHERE %s""";
+    private static final String SCORE = "GREATEST(similarity(t.name, ?), similarity(t.surname, ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<SearchHitDto> search(String query, SearchPageDto.Mode mode, SearchPageDto.Scope scope, int limit, int offset) {
+        // Короткий префикс совпадает с большой частью таблицы: similarity считаем только для строк страницы
+        boolean byName = mode == SearchPageDto.Mode.PREFIX && query.length() < MIN_TRIGRAM_QUERY_LENGTH;
+        List<Object> args = new ArrayList<>();
+        if (byName) {
+            args.add(query);
+            args.add(query);
+        }
+        List<String> parts = new ArrayList<>();
+        if (scope != SearchPageDto.Scope.DOCUMENT) {
+            parts.add(part(ARTIFACT_SQL, query, mode, byName, args));
+        }
+        if (scope != SearchPageDto.Scope.ARTIFACT) {
+            parts.add(part(DOCUMENT_SQL, query, mode, byName, args));
+        }
+        String union = String.join(" UNION ALL ", parts);
+        String sql = byName
+                ? "SELECT t.kind, t.id, t.name, t.surname, " + SCORE + " AS score FROM ("
+                        + union + " ORDER BY name, id LIMIT ? OFFSET ?) t ORDER BY t.name, t.id"
+                : union + " ORDER BY score DESC, name, id LIMIT ? OFFSET ?";
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> SearchHitDto.builder()
+                .kind(SearchHitDto.Kind.valueOf(rs.getString("kind")))
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .surname(rs.getString("surname"))
+                .score(rs.getDouble("score"))
+                .build(), args.toArray());
+    }
+
+    private static String part(String template, String query, SearchPageDto.Mode mode, boolean byName, List<Object> args) {
+        if (!byName) {
+            args.add(query);
+            args.add(query);
+        }
+        String condition = switch (mode) {
+            case PREFIX -> like(escapeLike(query) + "%", args);
+            case SUBSTRING -> like("%" + escapeLike(query) + "%", args);
+            case SIMILAR -> {
+                args.add(query);
+                args.add(query);
+                yield "(t.name % ? OR t.surname % ?)";
+            }
+        };
+        return template.formatted(byName ? "NULL::real" : SCORE, condition);
+    }
+
+    private static String like(String pattern, List<Object> args) {
+        args.add(pattern);
+        args.add(pattern);
+        return "(t.name ILIKE ? OR t.surname ILIKE ?)";
+    }
+
+    /**
+     * Обратный слеш - escape-символ LIKE в PostgreSQL по умолчанию.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,47 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class ArtifactAggregationDto {
+
+    /**
+     * Groups ordered by their key values.
+     */
+    private List<Group> groups;
+    /**
+     * {@code true} when there were more groups than {@code artifact.aggregation.max-groups}.
+     */
+    private boolean truncated;
+
+    @Data
+    @AllArgsConstructor
+    @Builder
+    @NoArgsConstructor
+    public static class Group {
+
+        /**
+         * Group key values by payload key; a missing key groups as {@code null}.
+         */
+        private Map<String, Object> key;
+        private long count;
+        /**
+         * Artifacts of the group whose metric is a number; sum/min/max/avg are computed over them.
+         */
+        private long metricCount;
+        private BigDecimal sum;
+        private BigDecimal min;
+        private BigDecimal max;
+        private BigDecimal avg;
+    }
+}
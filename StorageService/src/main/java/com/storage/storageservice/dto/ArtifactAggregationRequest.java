@@ -0,0 +1,29 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArtifactAggregationRequest {
+
+    /**
+     * Payload keys to group by; empty aggregates all matching artifacts into one group.
+     */
+    private List<String> groupBy;
+    /**
+     * Numeric payload key for sum/min/max/avg; only count is computed when absent.
+     */
+    private String metric;
+    /**
+     * Optional containment filter, as for {@code json/page}.
+     */
+    private Map<String, Object> filter;
+}
@@ -0,0 +1,26 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class ArtifactCacheStatsDto {
+
+    /**
+     * In-process cache of this node.
+     */
+    private CacheTierStatsDto l1;
+    /**
+     * Redis, counted only for lookups that missed L1.
+     */
+    private CacheTierStatsDto l2;
+    /**
+     * Payload containment results of this node, see {@code artifact.query.result-cache}.
+     */
+    private CacheTierStatsDto queries;
+}
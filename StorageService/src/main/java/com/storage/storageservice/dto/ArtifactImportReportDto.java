@@ -0,0 +1,37 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class ArtifactImportReportDto {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private long rows;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+    @Builder.Default
+    private List<FailedBatch> failedBatches = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @Builder
+    @NoArgsConstructor
+    public static class FailedBatch {
+
+        private long firstRecord;
+        private long lastRecord;
+        private long byteOffset;
+        private String error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class ArtifactPageDto {
+
+    private List<ArtifactDto> items;
+    /**
+     * Cursor for the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class CacheTierStatsDto {
+
+    private long hits;
+    private long misses;
+    private double hitRate;
+    /**
+     * Number of entries held, {@code null} when the tier does not report it.
+     */
+    private Long size;
+
+    public static CacheTierStatsDto of(long hits, long misses, Long size) {
+        long requests = hits + misses;
+        return new CacheTierStatsDto(hits, misses, requests == 0 ? 0 : (double) hits / requests, size);
+    }
+}
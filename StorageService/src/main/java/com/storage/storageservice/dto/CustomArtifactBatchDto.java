@@ -0,0 +1,25 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class CustomArtifactBatchDto {
+
+    /**
+     * Projected artifacts in request order.
+     */
+    private List<ArtifactDto> items;
+    /**
+     * Requested ids that do not exist.
+     */
+    private List<UUID> missingIds;
+}
@@ -0,0 +1,37 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class DynamicDocumentBulkReportDto {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private long fieldRows;
+    private long elapsedMillis;
+    @Builder.Default
+    private List<FailedDocument> failedDocuments = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @Builder
+    @NoArgsConstructor
+    public static class FailedDocument {
+
+        /**
+         * Position of the document in the request.
+         */
+        private int index;
+        private String error;
+    }
+}
@@ -0,0 +1,22 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class DynamicDocumentBulkRequest {
+
+    private UUID documentTypeId;
+    /**
+     * {@link DynamicDocumentDto#getDocumentTypeId()} of the items is ignored, all of them get the request's type.
+     */
+    private List<DynamicDocumentDto> documents;
+}
@@ -0,0 +1,38 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class DynamicDocumentPageDto {
+
+    private List<Item> items;
+    /**
+     * Cursor for the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+
+    @Data
+    @AllArgsConstructor
+    @Builder
+    @NoArgsConstructor
+    public static class Item {
+
+        private UUID id;
+        private String name;
+        private String surname;
+        /**
+         * Property name to value; a property stored more than once maps to the list of its values.
+         */
+        private Map<String, Object> fields;
+    }
+}
@@ -0,0 +1,61 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class DynamicDocumentQueryRequest {
+
+    private UUID documentTypeId;
+    /**
+     * All predicates must hold. At least one is required: documents are reached through their fields.
+     */
+    private List<Predicate> predicates;
+    private String cursor;
+    private Integer limit;
+
+    public enum Operator {
+        /**
+         * {@code value} equals the field.
+         */
+        EQ,
+        /**
+         * The field equals one of {@code values}.
+         */
+        IN,
+        /**
+         * {@code from <= field < to}; either bound may be omitted.
+         */
+        RANGE,
+        /**
+         * A string field starts with {@code value}.
+         */
+        PREFIX
+    }
+
+    @Data
+    @AllArgsConstructor
+    @Builder
+    @NoArgsConstructor
+    public static class Predicate {
+
+        private String propertyName;
+        /**
+         * Content type the property was stored with, {@code string} when omitted.
+         */
+        private String contentType;
+        private Operator operator;
+        private Object value;
+        private List<Object> values;
+        private Object from;
+        private Object to;
+    }
+}
@@ -0,0 +1,32 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class GenerationJobDto {
+
+    private UUID jobId;
+    private Status status;
+    private long requested;
+    private long produced;
+    private long persisted;
+    private long cached;
+    private long persistedRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private String error;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,34 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class PayloadIndexAdviceDto {
+
+    private String indexName;
+    private Operator operator;
+    /**
+     * Unpromoted payload keys seen in containment lookups, which the GIN index would serve.
+     */
+    private List<String> keys;
+    private long calls;
+    private double avgMillis;
+    private double maxMillis;
+    private String ddl;
+    private boolean exists;
+
+    public enum Operator {
+        /**
+         * {@code payload @> '{...}'}, served by a GIN {@code jsonb_path_ops} index on the whole payload.
+         */
+        CONTAINMENT
+    }
+}
@@ -0,0 +1,31 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class SearchHitDto {
+
+    private Kind kind;
+    private UUID id;
+    private String name;
+    private String surname;
+    /**
+     * Trigram similarity of the better matching field to the query, from 0 to 1.
+     */
+    private double score;
+
+    public enum Kind {
+        ARTIFACT,
+        CONTRACT,
+        INSURANCE,
+        DOCUMENT
+    }
+}
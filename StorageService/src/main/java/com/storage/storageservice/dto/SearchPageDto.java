@@ -0,0 +1,45 @@
+package com.storage.storageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class SearchPageDto {
+
+    /**
+     * Hits ordered by score, best first; by name for a prefix too short to rank.
+     */
+    private List<SearchHitDto> items;
+    /**
+     * Offset of the next page, {@code null} on the last page.
+     */
+    private Integer nextOffset;
+
+    public enum Mode {
+        /**
+         * Name or surname starts with the query, case-insensitive.
+         */
+        PREFIX,
+        /**
+         * Name or surname contains the query, case-insensitive.
+         */
+        SUBSTRING,
+        /**
+         * Name or surname is trigram-similar to the query ({@code pg_trgm.similarity_threshold}), tolerating typos.
+         */
+        SIMILAR
+    }
+
+    public enum Scope {
+        ALL,
+        ARTIFACT,
+        DOCUMENT
+    }
+}
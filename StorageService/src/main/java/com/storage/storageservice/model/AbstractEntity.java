@@ -1,9 +1,11 @@
 package com.storage.storageservice.model;
 
 
+import com.storage.storageservice.utils.TimeOrderedUuidGenerator;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
@@ -16,7 +18,7 @@ import java.util.UUID;
 public abstract class AbstractEntity implements IEntity<UUID> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     @Column(columnDefinition = "UUID")
     private UUID id;
 
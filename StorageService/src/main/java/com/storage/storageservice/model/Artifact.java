@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
+@Table(indexes = @Index(name = "artifact_parent_id_idx", columnList = "parent_id"))
 @Getter
 @Setter
 @SuperBuilder
@@ -6,10 +6,18 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Getter
 @Setter
@@ -29,6 +37,62 @@ public class DynamicDocument extends AbstractEntity {
     @Column(nullable = false)
     private LocalDateTime createDateTime = LocalDateTime.now();
 
+    /**
+     * Property name to value of every field, written together with the field rows. Reads are served from it,
+     * queries go to the field tables. A property stored more than once maps to the list of its values.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> fields = new LinkedHashMap<>();
+
     @OneToMany(mappedBy = "dynamicDocument", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<DynamicFieldInfoStr> stringDynamicFields = new HashSet<>();
+
+    @OneToMany(mappedBy = "dynamicDocument", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<DynamicFieldInfoLong> longDynamicFields = new HashSet<>();
+
+    @OneToMany(mappedBy = "dynamicDocument", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<DynamicFieldInfoDecimal> decimalDynamicFields = new HashSet<>();
+
+    @OneToMany(mappedBy = "dynamicDocument", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<DynamicFieldInfoBool> booleanDynamicFields = new HashSet<>();
+
+    @OneToMany(mappedBy = "dynamicDocument", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<DynamicFieldInfoTimestamp> timestampDynamicFields = new HashSet<>();
+
+    /**
+     * Links the field to this document, puts it into the collection of its type and into {@link #fields}.
+     */
+    public void addDynamicField(String propertyName, DynamicFieldInfoCommon<?> field) {
+        field.setDynamicDocument(this);
+        addToFields(propertyName, field.getPropertyValue());
+        switch (field) {
+            case DynamicFieldInfoStr str -> stringDynamicFields.add(str);
+            case DynamicFieldInfoLong number -> longDynamicFields.add(number);
+            case DynamicFieldInfoDecimal decimal -> decimalDynamicFields.add(decimal);
+            case DynamicFieldInfoBool bool -> booleanDynamicFields.add(bool);
+            case DynamicFieldInfoTimestamp timestamp -> timestampDynamicFields.add(timestamp);
+            default -> throw new IllegalArgumentException("Unknown field type " + field.getClass().getSimpleName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addToFields(String propertyName, Object value) {
+        // Время пишем ISO-строкой: JSON-маппер Hibernate сериализует LocalDateTime массивом чисел
+        Object json = value instanceof LocalDateTime timestamp ? timestamp.toString() : value;
+        if (!fields.containsKey(propertyName)) {
+            fields.put(propertyName, json);
+        } else if (fields.get(propertyName) instanceof List<?> values) {
+            ((List<Object>) values).add(json);
+        } else {
+            List<Object> values = new ArrayList<>(Collections.singletonList(fields.get(propertyName)));
+            values.add(json);
+            fields.put(propertyName, values);
+        }
+    }
+
+    public Stream<DynamicFieldInfoCommon<?>> dynamicFields() {
+        return Stream.of(stringDynamicFields, longDynamicFields, decimalDynamicFields, booleanDynamicFields, timestampDynamicFields)
+                .flatMap(Set::stream);
+    }
 }
\ No newline at end of file
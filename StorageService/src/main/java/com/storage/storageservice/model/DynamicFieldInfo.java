@@ -2,7 +2,6 @@ package com.storage.storageservice.model;
 
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MappedSuperclass;
-import jakarta.persistence.OneToOne;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,6 +13,7 @@ public abstract class DynamicFieldInfo extends AbstractEntity {
     @ManyToOne
     private DynamicDocument dynamicDocument;
 
-    @OneToOne
+    // Одно свойство у многих документов: OneToOne давал unique-ограничение на property_type_id
+    @ManyToOne
     private PropertyType propertyType;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.storage.storageservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "dynamic_field_info_bool_property_value_idx", columnList = "property_type_id, property_value, dynamic_document_id"),
+        @Index(name = "dynamic_field_info_bool_document_idx", columnList = "dynamic_document_id, property_type_id")
+})
+public class DynamicFieldInfoBool extends DynamicFieldInfoCommon<Boolean> {
+    @Override
+    public Boolean getPropertyValue() {
+        return super.getPropertyValue();
+    }
+
+    @Override
+    public void setPropertyValue(Boolean propertyValue) {
+        super.setPropertyValue(propertyValue);
+    }
+}
@@ -0,0 +1,28 @@
+package com.storage.storageservice.model;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+
+@Entity
+// Без явного типа Hibernate создаёт numeric(38,2) и округляет значения до копеек
+@AttributeOverride(name = "propertyValue", column = @Column(name = "property_value", columnDefinition = "numeric"))
+@Table(indexes = {
+        @Index(name = "dynamic_field_info_decimal_property_value_idx", columnList = "property_type_id, property_value, dynamic_document_id"),
+        @Index(name = "dynamic_field_info_decimal_document_idx", columnList = "dynamic_document_id, property_type_id")
+})
+public class DynamicFieldInfoDecimal extends DynamicFieldInfoCommon<BigDecimal> {
+    @Override
+    public BigDecimal getPropertyValue() {
+        return super.getPropertyValue();
+    }
+
+    @Override
+    public void setPropertyValue(BigDecimal propertyValue) {
+        super.setPropertyValue(propertyValue);
+    }
+}
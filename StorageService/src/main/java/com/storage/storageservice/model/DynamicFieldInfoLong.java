@@ -0,0 +1,22 @@
+package com.storage.storageservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "dynamic_field_info_long_property_value_idx", columnList = "property_type_id, property_value, dynamic_document_id"),
+        @Index(name = "dynamic_field_info_long_document_idx", columnList = "dynamic_document_id, property_type_id")
+})
+public class DynamicFieldInfoLong extends DynamicFieldInfoCommon<Long> {
+    @Override
+    public Long getPropertyValue() {
+        return super.getPropertyValue();
+    }
+
+    @Override
+    public void setPropertyValue(Long propertyValue) {
+        super.setPropertyValue(propertyValue);
+    }
+}
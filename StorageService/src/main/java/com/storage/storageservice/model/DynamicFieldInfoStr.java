@@ -1,8 +1,15 @@
 package com.storage.storageservice.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+        // dynamic_document_id в конце: условие по значению отдаёт id документов прямо из индекса
+        @Index(name = "dynamic_field_info_str_property_value_idx", columnList = "property_type_id, property_value, dynamic_document_id"),
+        @Index(name = "dynamic_field_info_str_document_idx", columnList = "dynamic_document_id, property_type_id")
+})
 public class DynamicFieldInfoStr extends DynamicFieldInfoCommon<String> {
     @Override
     //@Column(name = "property_value", length = 2000)
@@ -0,0 +1,24 @@
+package com.storage.storageservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "dynamic_field_info_timestamp_property_value_idx", columnList = "property_type_id, property_value, dynamic_document_id"),
+        @Index(name = "dynamic_field_info_timestamp_document_idx", columnList = "dynamic_document_id, property_type_id")
+})
+public class DynamicFieldInfoTimestamp extends DynamicFieldInfoCommon<LocalDateTime> {
+    @Override
+    public LocalDateTime getPropertyValue() {
+        return super.getPropertyValue();
+    }
+
+    @Override
+    public void setPropertyValue(LocalDateTime propertyValue) {
+        super.setPropertyValue(propertyValue);
+    }
+}
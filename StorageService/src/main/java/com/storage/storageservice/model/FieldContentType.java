@@ -0,0 +1,155 @@
+package com.storage.storageservice.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Content type of a dynamic field, as sent in {@code DynamicFieldDto.contentType}. Each type is stored
+ * in a table of its own with a native column, so range conditions on the value can use an index.
+ */
+public enum FieldContentType {
+
+    STRING {
+        @Override
+        public DynamicFieldInfoStr newField(Object value) {
+            DynamicFieldInfoStr field = new DynamicFieldInfoStr();
+            field.setPropertyValue(value == null ? null : toText(value));
+            return field;
+        }
+    },
+    NUMBER {
+        @Override
+        public DynamicFieldInfoLong newField(Object value) {
+            DynamicFieldInfoLong field = new DynamicFieldInfoLong();
+            field.setPropertyValue(value == null ? null : toLong(value));
+            return field;
+        }
+    },
+    DECIMAL {
+        @Override
+        public DynamicFieldInfoDecimal newField(Object value) {
+            DynamicFieldInfoDecimal field = new DynamicFieldInfoDecimal();
+            field.setPropertyValue(value == null ? null : toDecimal(value));
+            return field;
+        }
+    },
+    BOOLEAN {
+        @Override
+        public DynamicFieldInfoBool newField(Object value) {
+            DynamicFieldInfoBool field = new DynamicFieldInfoBool();
+            field.setPropertyValue(value == null ? null : toBoolean(value));
+            return field;
+        }
+    },
+    TIMESTAMP {
+        @Override
+        public DynamicFieldInfoTimestamp newField(Object value) {
+            DynamicFieldInfoTimestamp field = new DynamicFieldInfoTimestamp();
+            field.setPropertyValue(value == null ? null : toTimestamp(value));
+            return field;
+        }
+    };
+
+    /**
+     * @throws IllegalArgumentException if the value can not be stored as this type
+     */
+    public abstract DynamicFieldInfoCommon<?> newField(Object value);
+
+    /**
+     * @throws IllegalArgumentException for an unknown content type
+     */
+    public static FieldContentType of(String contentType) {
+        if (contentType == null) {
+            throw new IllegalArgumentException("contentType is required");
+        }
+        try {
+            return valueOf(contentType.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported content type %s".formatted(contentType));
+        }
+    }
+
+    public static FieldContentType of(DynamicFieldInfoCommon<?> field) {
+        return switch (field) {
+            case DynamicFieldInfoStr str -> STRING;
+            case DynamicFieldInfoLong number -> NUMBER;
+            case DynamicFieldInfoDecimal decimal -> DECIMAL;
+            case DynamicFieldInfoBool bool -> BOOLEAN;
+            case DynamicFieldInfoTimestamp timestamp -> TIMESTAMP;
+            default -> throw new IllegalArgumentException("Unknown field type " + field.getClass().getSimpleName());
+        };
+    }
+
+    /**
+     * Value of the SQL column of this type, converted from JSON input or a query parameter.
+     */
+    public Object convert(Object value) {
+        return value == null ? null : newField(value).getPropertyValue();
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof String text) {
+            return text;
+        }
+        throw invalid(value, "a string");
+    }
+
+    private static Long toLong(Object value) {
+        try {
+            return switch (value) {
+                case Integer i -> i.longValue();
+                case Long l -> l;
+                case BigInteger big -> big.longValueExact();
+                case BigDecimal decimal -> decimal.longValueExact();
+                case Number number -> new BigDecimal(number.toString()).longValueExact();
+                case String text -> Long.parseLong(text.strip());
+                default -> throw invalid(value, "an integer");
+            };
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw invalid(value, "an integer");
+        }
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        try {
+            return switch (value) {
+                case BigDecimal decimal -> decimal;
+                // toString у double даёт кратчайшую запись, без хвоста двоичной дроби
+                case Number number -> new BigDecimal(number.toString());
+                case String text -> new BigDecimal(text.strip());
+                default -> throw invalid(value, "a decimal");
+            };
+        } catch (NumberFormatException e) {
+            throw invalid(value, "a decimal");
+        }
+    }
+
+    private static Boolean toBoolean(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof String text && (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false"))) {
+            return Boolean.valueOf(text);
+        }
+        throw invalid(value, "a boolean");
+    }
+
+    private static LocalDateTime toTimestamp(Object value) {
+        if (!(value instanceof String text)) {
+            throw invalid(value, "an ISO date or date-time");
+        }
+        try {
+            return text.length() == 10 ? LocalDate.parse(text).atStartOfDay() : LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw invalid(value, "an ISO date or date-time");
+        }
+    }
+
+    private static IllegalArgumentException invalid(Object value, String expected) {
+        return new IllegalArgumentException("Value %s is not %s".formatted(value, expected));
+    }
+}
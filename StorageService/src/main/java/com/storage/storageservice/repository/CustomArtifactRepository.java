@@ -1,11 +1,24 @@
 package com.storage.storageservice.repository;
 
+import com.storage.storageservice.dto.CacheTierStatsDto;
 import jakarta.persistence.Tuple;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
 public interface CustomArtifactRepository {
 
     Tuple findProjectedById(UUID id, Set<String> fields);
+
+    /**
+     * Projects all requested artifacts with one {@code IN} query; ids that do not exist are absent from the map.
+     */
+    Map<UUID, Tuple> findProjectedByIds(Collection<UUID> ids, Set<String> fields);
+
+    /**
+     * Hits and misses of the compiled projection cache, keyed by the sorted field set.
+     */
+    CacheTierStatsDto projectionPlanStats();
 }
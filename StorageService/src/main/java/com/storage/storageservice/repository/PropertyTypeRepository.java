@@ -2,11 +2,31 @@ package com.storage.storageservice.repository;
 
 import com.storage.storageservice.model.PropertyType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PropertyTypeRepository extends JpaRepository<PropertyType, UUID> {
 
     Optional<PropertyType> findByPropertyNameAndDocumentTypeId(String name, UUID documentTypeId);
+
+    @Query("select p.documentType.id as documentTypeId, p.propertyName as propertyName, p.id as id from PropertyType p")
+    List<PropertyTypeRef> findAllRefs();
+
+    @Query("select p.documentType.id as documentTypeId, p.propertyName as propertyName, p.id as id "
+            + "from PropertyType p where p.documentType.id = :documentTypeId")
+    List<PropertyTypeRef> findRefsByDocumentTypeId(UUID documentTypeId);
+
+    /**
+     * Id of a property type without loading the entity or its document type.
+     */
+    interface PropertyTypeRef {
+        UUID getDocumentTypeId();
+
+        String getPropertyName();
+
+        UUID getId();
+    }
 }
@@ -1,52 +1,184 @@
 package com.storage.storageservice.repository.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.storage.storageservice.dto.CacheTierStatsDto;
 import com.storage.storageservice.model.Artifact;
 import com.storage.storageservice.model.Artifact_;
 import com.storage.storageservice.repository.CustomArtifactRepository;
 import com.storage.storageservice.utils.CriteriaFieldResolver;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
 import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.sqm.tree.select.SqmSelectStatement;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
 public class CustomArtifactRepositoryImpl implements CustomArtifactRepository {
 
+    private static final String ID_PARAMETER = "id";
+    private static final String IDS_PARAMETER = "ids";
+
     private final EntityManager em;
 
+    @Value("${artifact.projection.plan-cache-size:256}")
+    private long planCacheSize;
+
+    /**
+     * HQL per canonical (sorted) field set and lookup shape. Hibernate caches the interpretation of an HQL string,
+     * so a repeated field set skips both criteria building and SQM translation.
+     */
+    private Cache<PlanKey, ProjectionPlan> plans;
+
+    @PostConstruct
+    void init() {
+        plans = CacheBuilder.newBuilder()
+                .maximumSize(planCacheSize)
+                .recordStats()
+                .build();
+    }
+
     @Override
     public Tuple findProjectedById(UUID id, Set<String> fields) {
+        ProjectionPlan plan = planFor(fields, false);
+        Tuple tuple = em.createQuery(plan.hql(), Tuple.class)
+                .setParameter(ID_PARAMETER, id)
+                .getSingleResult();
+        return new ProjectedTuple(plan.fields(), tuple.toArray());
+    }
+
+    @Override
+    public Map<UUID, Tuple> findProjectedByIds(Collection<UUID> ids, Set<String> fields) {
+        ProjectionPlan plan = planFor(fields, true);
+        List<Tuple> rows = em.createQuery(plan.hql(), Tuple.class)
+                .setParameter(IDS_PARAMETER, ids)
+                .getResultList();
+        Map<UUID, Tuple> result = new HashMap<>(rows.size() * 2);
+        for (Tuple row : rows) {
+            // Первая колонка пакетного плана - id, по нему строки раскладываются по запросу
+            Object[] values = row.toArray();
+            result.put((UUID) values[0], new ProjectedTuple(plan.fields(), Arrays.copyOfRange(values, 1, values.length)));
+        }
+        return result;
+    }
+
+    @Override
+    public CacheTierStatsDto projectionPlanStats() {
+        CacheStats stats = plans.stats();
+        return CacheTierStatsDto.of(stats.hitCount(), stats.missCount(), plans.size());
+    }
+
+    private ProjectionPlan planFor(Set<String> fields, boolean byIds) {
+        PlanKey key = new PlanKey(List.copyOf(new TreeSet<>(fields)), byIds);
+        ProjectionPlan plan = plans.getIfPresent(key);
+        if (plan == null) {
+            // Гонка двух промахов безвредна: оба построят одинаковый HQL
+            plan = compile(key.fields(), byIds);
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    private ProjectionPlan compile(List<String> fields, boolean byIds) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<Tuple> query = cb.createQuery(Tuple.class);
         Root<Artifact> root = query.from(Artifact.class);
 
         // Динамический SELECT
-        List<Selection<?>> selections = fields.stream()
-                .map(field -> CriteriaFieldResolver.resolveSelection(root, field, cb))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        if (byIds) {
+            selections.add(root.get(Artifact_.ID));
+        }
+        fields.forEach(field -> selections.add(CriteriaFieldResolver.resolveSelection(root, field, cb)));
+
+        // WHERE-условие с параметром, чтобы HQL не зависел от id
+        Predicate where = byIds
+                ? root.get(Artifact_.ID).in(cb.parameter(Collection.class, IDS_PARAMETER))
+                : cb.equal(root.get(Artifact_.ID), cb.parameter(UUID.class, ID_PARAMETER));
+        query.multiselect(selections).where(where);
 
-        // WHERE-условие
-        query.multiselect(selections)
-                .where(cb.equal(root.get(Artifact_.ID), id));
+        return new ProjectionPlan(((SqmSelectStatement<?>) query).toHqlString(), fields);
+    }
+
+    private record PlanKey(List<String> fields, boolean byIds) {
+    }
 
-       return  em.createQuery(query).getSingleResult();
+    /**
+     * @param fields field paths in select-list order, following the id column in batch plans
+     */
+    private record ProjectionPlan(String hql, List<String> fields) {
     }
 
-    private Map<String, Object> convertToMap(Tuple tuple, Set<String> fields) {
-        Map<String, Object> map = new HashMap<>();
-        for (String field : fields) {
-            try {
-                map.put(field, tuple.get(field));
-            } catch (IllegalArgumentException ignored) {
-                // Поле не было выбрано в запросе
+    /**
+     * Exposes the positional result under the requested field paths, which are not valid HQL aliases.
+     */
+    private record ProjectedTuple(List<String> aliases, Object[] values) implements Tuple {
+
+        @Override
+        public <X> X get(TupleElement<X> tupleElement) {
+            return get(tupleElement.getAlias(), tupleElement.getJavaType());
+        }
+
+        @Override
+        public <X> X get(String alias, Class<X> type) {
+            return type.cast(get(alias));
+        }
+
+        @Override
+        public Object get(String alias) {
+            int i = aliases.indexOf(alias);
+            if (i < 0) {
+                throw new IllegalArgumentException("Unknown tuple alias: " + alias);
             }
+            return values[i];
+        }
+
+        @Override
+        public <X> X get(int i, Class<X> type) {
+            return type.cast(get(i));
+        }
+
+        @Override
+        public Object get(int i) {
+            if (i < 0 || i >= values.length) {
+                throw new IllegalArgumentException("Tuple index out of range: " + i);
+            }
+            return values[i];
+        }
+
+        @Override
+        public Object[] toArray() {
+            return values.clone();
+        }
+
+        @Override
+        public List<TupleElement<?>> getElements() {
+            List<TupleElement<?>> elements = new ArrayList<>(aliases.size());
+            for (int i = 0; i < aliases.size(); i++) {
+                elements.add(new ProjectedElement(aliases.get(i), values[i] == null ? Object.class : values[i].getClass()));
+            }
+            return elements;
+        }
+    }
+
+    private record ProjectedElement(String alias, Class<?> javaType) implements TupleElement<Object> {
+
+        @Override
+        public Class<?> getJavaType() {
+            return javaType;
+        }
+
+        @Override
+        public String getAlias() {
+            return alias;
         }
-        return map;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.storage.storageservice.service;
 
+import com.storage.storageservice.dto.ArtifactDto;
 import com.storage.storageservice.model.Artifact;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,5 +10,21 @@ import java.util.List;
 public interface ArtifactBatchService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     void saveBatch(List<Artifact> batch);
+
+    /**
+     * Same as {@link #saveBatch(List)} but leaves the Redis write to the caller.
+     *
+     * @return DTOs of the saved artifacts, ready to be cached
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    List<ArtifactDto> persistBatch(List<Artifact> batch);
+
+    /**
+     * Writes whole artifact trees with PostgreSQL COPY, bypassing Hibernate, and fills the Redis cache.
+     *
+     * @return number of rows written, children included
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    long copyBatch(List<ArtifactDto> batch);
 }
 
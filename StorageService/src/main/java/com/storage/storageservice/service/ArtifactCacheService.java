@@ -1,8 +1,11 @@
 package com.storage.storageservice.service;
 
+import com.storage.storageservice.dto.ArtifactCacheStatsDto;
 import com.storage.storageservice.dto.ArtifactDto;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
 
 public interface ArtifactCacheService {
     void put(ArtifactDto dto);
@@ -10,4 +13,18 @@ public interface ArtifactCacheService {
     ArtifactDto get(String id);
 
     void multiset(Collection<ArtifactDto> col);
+
+    /**
+     * Reads all given ids with a single MGET.
+     *
+     * @return cached DTOs by id, misses are absent from the map
+     */
+    Map<UUID, ArtifactDto> multiget(Collection<UUID> ids);
+
+    /**
+     * Removes the artifact from Redis and from the in-process cache of every node.
+     */
+    void evict(UUID id);
+
+    ArtifactCacheStatsDto stats();
 }
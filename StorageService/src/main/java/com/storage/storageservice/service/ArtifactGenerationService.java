@@ -0,0 +1,15 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dto.GenerationJobDto;
+
+import java.util.UUID;
+
+public interface ArtifactGenerationService {
+
+    /**
+     * Starts an asynchronous generation job and returns its id right away.
+     */
+    UUID start(int count);
+
+    GenerationJobDto getJob(UUID jobId);
+}
@@ -0,0 +1,45 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dto.CacheTierStatsDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process cache of payload containment results: the matching artifact ids per filter.
+ */
+public interface ArtifactQueryCacheService {
+
+    /**
+     * @return canonical JSON of the filter with map keys sorted, or {@code null} if the filter is too large to cache
+     */
+    String key(Map<String, ?> filter);
+
+    /**
+     * Write generation to read before running the query and pass to {@link #put}.
+     */
+    long generation();
+
+    /**
+     * @return cached ids for the key, or {@code null} on a miss
+     */
+    List<UUID> get(String key);
+
+    /**
+     * Caches the ids unless an artifact write has completed since {@code generation} was read,
+     * in which case the result may already be stale.
+     */
+    void put(String key, Map<String, ?> filter, List<UUID> ids, long generation);
+
+    void evict(String key);
+
+    /**
+     * Drops every cached filter that one of the written payloads contains. Inside a transaction
+     * this happens after commit, so a concurrent reader can not re-cache the old result.
+     */
+    void invalidateMatching(Collection<Map<String, Object>> payloads);
+
+    CacheTierStatsDto stats();
+}
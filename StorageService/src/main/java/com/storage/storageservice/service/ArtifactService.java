@@ -1,9 +1,21 @@
 package com.storage.storageservice.service;
 
+import com.storage.storageservice.dto.ArtifactAggregationDto;
+import com.storage.storageservice.dto.ArtifactAggregationRequest;
+import com.storage.storageservice.dto.ArtifactCacheStatsDto;
 import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.ArtifactImportReportDto;
+import com.storage.storageservice.dto.ArtifactPageDto;
+import com.storage.storageservice.dto.CacheTierStatsDto;
+import com.storage.storageservice.dto.CustomArtifactBatchDto;
+import com.storage.storageservice.dto.CustomArtifactBatchRequest;
 import com.storage.storageservice.dto.CustomArtifactRequest;
-import org.springframework.transaction.annotation.Transactional;
+import com.storage.storageservice.dto.GenerationJobDto;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -11,14 +23,76 @@ public interface ArtifactService {
 
     void addNewArtifact(ArtifactDto dto);
 
-    void generateSomeArtifacts(int count);
+    UUID generateSomeArtifacts(int count);
+
+    GenerationJobDto getGenerationJob(UUID jobId);
+
+    long bulkInsert(List<ArtifactDto> dtos);
+
+    /**
+     * Imports a stream of newline-delimited {@link ArtifactDto} JSON objects in transaction-sized batches.
+     * A failed batch is reported and skipped, the import goes on with the next one.
+     */
+    ArtifactImportReportDto importNdjson(InputStream ndjson);
 
     ArtifactDto getArtByJsonField(String key, String value);
 
     ArtifactDto getArtByNativeJsonFields(Map<String, Object> request);
 
+    /**
+     * Keyset page of artifacts whose payload has {@code key = value}, ordered by id.
+     *
+     * @param cursor {@code nextCursor} of the previous page, {@code null} for the first one
+     */
+    ArtifactPageDto getPageByJsonField(String key, String value, String cursor, Integer limit);
+
+    /**
+     * Keyset page of artifacts whose payload contains {@code request}, ordered by id.
+     *
+     * @param cursor {@code nextCursor} of the previous page, {@code null} for the first one
+     */
+    ArtifactPageDto getPageByNativeJsonFields(Map<String, Object> request, String cursor, Integer limit);
+
+    /**
+     * Keyset page of artifacts whose promoted bigint payload {@code key} lies within {@code [from, to]},
+     * ordered by id; either bound may be {@code null}.
+     */
+    ArtifactPageDto getPageByRange(String key, Long from, Long to, String cursor, Integer limit);
+
+    /**
+     * Groups the artifacts matching the optional filter by payload keys and aggregates a numeric key,
+     * computed by the database in one query.
+     */
+    ArtifactAggregationDto aggregate(ArtifactAggregationRequest request);
+
+    /**
+     * Writes every artifact whose payload contains {@code request} to {@code out} as NDJSON,
+     * reading the matches through a database cursor.
+     */
+    void streamByNativeJsonFields(Map<String, Object> request, OutputStream out);
+
     ArtifactDto getCustomById(CustomArtifactRequest request);
 
-    @Transactional
-    ArtifactDto getById(UUID id);
+    /**
+     * Projects the requested fields of every id with a single query.
+     * Items follow request order; ids that do not exist are listed in {@code missingIds}.
+     */
+    CustomArtifactBatchDto getCustomByIds(CustomArtifactBatchRequest request);
+
+    /**
+     * Returns the artifact with its descendants from cache, loading and caching it on a miss.
+     *
+     * @param depth levels of descendants to include, all (up to the configured maximum) when {@code null}
+     * @throws java.util.NoSuchElementException if there is no such artifact
+     */
+    ArtifactDto getById(UUID id, Integer depth);
+
+    /**
+     * Returns the found artifacts in request order; unknown ids are skipped.
+     */
+    List<ArtifactDto> getByIds(Collection<UUID> ids);
+
+    ArtifactCacheStatsDto getCacheStats();
+
+    CacheTierStatsDto getProjectionPlanStats();
 }
@@ -0,0 +1,33 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.model.PropertyType;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolved property schema per document type, shared across requests.
+ */
+public interface DocumentSchemaCacheService {
+
+    /**
+     * @return a reference to the property type that does not hit the database until it is read
+     * @throws java.lang.module.FindException if the document type does not exist or has no such property
+     */
+    PropertyType resolve(UUID documentTypeId, String propertyName);
+
+    /**
+     * Property name to property type id. If the cached schema lacks any of the names it is reloaded, unless
+     * it was loaded within the last {@code document.schema-cache.min-reload-interval-millis}; names missing
+     * from the result were unknown to the database at most that long ago.
+     *
+     * @throws java.lang.module.FindException if the document type does not exist
+     */
+    Map<String, UUID> schema(UUID documentTypeId, Collection<String> propertyNames);
+
+    /**
+     * Drops the cached schema of the document type. Inside a transaction this happens after commit.
+     */
+    void invalidate(UUID documentTypeId);
+}
@@ -0,0 +1,19 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.model.DynamicDocument;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface DynamicDocumentBatchService {
+
+    /**
+     * Writes the documents and their fields with PostgreSQL COPY in a transaction of its own,
+     * so a failed batch does not roll back the ones written before it.
+     *
+     * @return number of field rows written
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    long copyBatch(List<DynamicDocument> batch);
+}
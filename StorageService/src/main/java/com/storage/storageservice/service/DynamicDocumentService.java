@@ -1,8 +1,40 @@
 package com.storage.storageservice.service;
 
+import com.storage.storageservice.dto.DynamicDocumentBulkReportDto;
+import com.storage.storageservice.dto.DynamicDocumentBulkRequest;
 import com.storage.storageservice.dto.DynamicDocumentDto;
+import com.storage.storageservice.dto.DynamicDocumentPageDto;
+import com.storage.storageservice.dto.DynamicDocumentQueryRequest;
+
+import java.util.UUID;
 
 public interface DynamicDocumentService {
 
     void addNewDocument(DynamicDocumentDto dto);
+
+    /**
+     * Writes documents of one type in COPY batches. Invalid documents and documents the database rejects
+     * are reported by their index in the request; the rest are written.
+     */
+    DynamicDocumentBulkReportDto addDocuments(DynamicDocumentBulkRequest request);
+
+    /**
+     * Page of documents of the type matching all predicates, with their fields of every type.
+     *
+     * @throws IllegalArgumentException for an unknown property or a value that does not fit its content type
+     * @throws java.lang.module.FindException if the document type does not exist
+     */
+    DynamicDocumentPageDto query(DynamicDocumentQueryRequest request);
+
+    /**
+     * Document with its fields, read from the field snapshot of the document row.
+     *
+     * @throws java.lang.module.FindException if there is no such document
+     */
+    DynamicDocumentPageDto.Item getDocument(UUID id);
+
+    /**
+     * Page of all documents ordered by id, starting after the cursor of the previous page.
+     */
+    DynamicDocumentPageDto getPage(String cursor, Integer limit);
 }
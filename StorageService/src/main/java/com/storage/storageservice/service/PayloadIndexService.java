@@ -0,0 +1,31 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dto.PayloadIndexAdviceDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects payload lookups as they arrive and turns them into an index proposal once they are hot.
+ */
+public interface PayloadIndexService {
+
+    /**
+     * Counts one containment lookup on the given payload keys.
+     */
+    void record(Collection<String> keys, long elapsedNanos);
+
+    /**
+     * The GIN proposal, if payload lookups are frequent and slow enough.
+     */
+    List<PayloadIndexAdviceDto> getAdvice();
+
+    /**
+     * Creates the proposed indexes that do not exist yet, one {@code CREATE INDEX CONCURRENTLY} at a time.
+     *
+     * @param indexNames indexes to create, all missing proposals when empty
+     * @return {@code created} or the error message by index name
+     */
+    Map<String, String> apply(Collection<String> indexNames);
+}
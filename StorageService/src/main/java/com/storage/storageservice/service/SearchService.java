@@ -0,0 +1,13 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dto.SearchPageDto;
+
+public interface SearchService {
+
+    /**
+     * Ranked page of artifacts and documents whose name or surname matches the query.
+     *
+     * @param limit page size, defaults to {@code search.default-limit} and is capped by {@code search.max-limit}
+     */
+    SearchPageDto search(String query, SearchPageDto.Mode mode, SearchPageDto.Scope scope, Integer limit, int offset);
+}
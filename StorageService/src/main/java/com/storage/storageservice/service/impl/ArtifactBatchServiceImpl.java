@@ -1,17 +1,21 @@
 package com.storage.storageservice.service.impl;
 
+import com.storage.storageservice.dao.ArtifactDao;
 import com.storage.storageservice.dto.ArtifactDto;
 import com.storage.storageservice.mapper.ArtifactMapper;
 import com.storage.storageservice.model.Artifact;
 import com.storage.storageservice.repository.ArtifactRepository;
 import com.storage.storageservice.service.ArtifactBatchService;
 import com.storage.storageservice.service.ArtifactCacheService;
+import com.storage.storageservice.service.ArtifactQueryCacheService;
+import com.storage.storageservice.utils.ArtifactTreeUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -20,14 +24,51 @@ public class ArtifactBatchServiceImpl implements ArtifactBatchService {
     private final ArtifactRepository artifactRepository;
     private final ArtifactMapper artifactMapper;
     private final ArtifactCacheService artifactCacheService;
+    private final ArtifactDao artifactDao;
+    private final ArtifactQueryCacheService artifactQueryCacheService;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
     public void saveBatch(List<Artifact> batch) {
+        artifactCacheService.multiset(persistBatch(batch));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public List<ArtifactDto> persistBatch(List<Artifact> batch) {
         List<Artifact> saved = artifactRepository.saveAll(batch);
-        List<ArtifactDto> cacheList = saved.stream()
+        artifactQueryCacheService.invalidateMatching(payloads(saved));
+        return saved.stream()
+                .map(artifactMapper::toDto)
+                .toList();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public long copyBatch(List<ArtifactDto> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Artifact> roots = batch.stream()
+                .map(ArtifactTreeUtils::toNewEntityTree)
+                .toList();
+        List<Artifact> rows = roots.stream()
+                .flatMap(root -> ArtifactTreeUtils.preOrder(root).stream())
+                .toList();
+        long written = artifactDao.copyIn(rows);
+        artifactQueryCacheService.invalidateMatching(rows.stream()
+                .map(Artifact::getPayload)
+                .toList());
+        artifactCacheService.multiset(roots.stream()
                 .map(artifactMapper::toDto)
+                .toList());
+        return written;
+    }
+
+    private static List<Map<String, Object>> payloads(List<Artifact> roots) {
+        return roots.stream()
+                .flatMap(root -> ArtifactTreeUtils.preOrder(root).stream())
+                .map(Artifact::getPayload)
                 .toList();
-        artifactCacheService.multiset(cacheList);
     }
 }
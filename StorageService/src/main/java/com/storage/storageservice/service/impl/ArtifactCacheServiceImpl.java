@@ -1,34 +1,104 @@
 package com.storage.storageservice.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.storage.storageservice.dto.ArtifactCacheStatsDto;
 import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.CacheTierStatsDto;
 import com.storage.storageservice.service.ArtifactCacheService;
+import jakarta.annotation.PostConstruct;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Two-tier artifact cache: a bounded in-process L1 in front of Redis (L2).
+ * <p>
+ * Every write to L2 is announced on a Redis channel so the other nodes drop their L1 copy.
+ * Pub/sub is fire-and-forget, so the short L1 TTL bounds staleness if a message is lost.
+ * L1 hands out the cached instances themselves, callers must not modify them.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class ArtifactCacheServiceImpl implements ArtifactCacheService {
+public class ArtifactCacheServiceImpl implements ArtifactCacheService, MessageListener {
+
+    private static final String SEPARATOR = "|";
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+
+    @Value("${artifact.cache.l1.max-size:10000}")
+    private long l1MaxSize;
+
+    @Value("${artifact.cache.l1.ttl-seconds:30}")
+    private long l1TtlSeconds;
+
+    @Value("${artifact.cache.invalidation-channel:artifact-cache-invalidation}")
+    private String invalidationChannel;
+
+    private Cache<String, ArtifactDto> l1;
+
+    @PostConstruct
+    void init() {
+        l1 = CacheBuilder.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(l1TtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+    }
 
     @Override
     public void put(ArtifactDto dto) {
-        redisTemplate.opsForValue().set(dto.getId().toString(), dto, 1, TimeUnit.HOURS);
+        String key = dto.getId().toString();
+        redisTemplate.opsForValue().set(key, dto, 1, TimeUnit.HOURS);
+        l1.put(key, dto);
+        publishInvalidation(List.of(key));
     }
 
     @Override
     public ArtifactDto get(String id) {
-        return (ArtifactDto) redisTemplate.opsForValue().get(id);
+        ArtifactDto dto = l1.getIfPresent(id);
+        if (dto != null) {
+            return dto;
+        }
+        dto = (ArtifactDto) redisTemplate.opsForValue().get(id);
+        if (dto == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        l1.put(id, dto);
+        return dto;
     }
 
     @Override
@@ -47,5 +117,79 @@ public class ArtifactCacheServiceImpl implements ArtifactCacheService {
                 return null;
             }
         });
+        l1.putAll(map);
+        publishInvalidation(map.keySet());
+    }
+
+    @Override
+    public Map<UUID, ArtifactDto> multiget(Collection<UUID> ids) {
+        Map<UUID, ArtifactDto> result = new HashMap<>();
+        List<UUID> l1Misses = new ArrayList<>();
+        for (UUID id : ids) {
+            ArtifactDto dto = l1.getIfPresent(id.toString());
+            if (dto != null) {
+                result.put(id, dto);
+            } else {
+                l1Misses.add(id);
+            }
+        }
+        if (l1Misses.isEmpty()) {
+            return result;
+        }
+        List<Object> values = redisTemplate.opsForValue().multiGet(l1Misses.stream()
+                .map(UUID::toString)
+                .toList());
+        for (int i = 0; i < l1Misses.size(); i++) {
+            if (values != null && values.get(i) instanceof ArtifactDto dto) {
+                l2Hits.increment();
+                l1.put(dto.getId().toString(), dto);
+                result.put(l1Misses.get(i), dto);
+            } else {
+                l2Misses.increment();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(UUID id) {
+        String key = id.toString();
+        redisTemplate.delete(key);
+        l1.invalidate(key);
+        publishInvalidation(List.of(key));
+    }
+
+    @Override
+    public ArtifactCacheStatsDto stats() {
+        CacheStats l1Stats = l1.stats();
+        return ArtifactCacheStatsDto.builder()
+                .l1(CacheTierStatsDto.of(l1Stats.hitCount(), l1Stats.missCount(), l1.size()))
+                .l2(CacheTierStatsDto.of(l2Hits.sum(), l2Misses.sum(), null))
+                .build();
+    }
+
+    /**
+     * Receives invalidations published by other nodes: {@code <nodeId>|<id>,<id>,...}.
+     */
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        l1.invalidateAll(Arrays.asList(body.substring(separator + 1).split(",")));
+    }
+
+    private void publishInvalidation(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, nodeId + SEPARATOR + String.join(",", keys));
+        } catch (RuntimeException e) {
+            // Значение в Redis уже записано, остальные узлы догонят по TTL L1
+            log.warn("Failed to publish invalidation for {} artifact(s)", keys.size(), e);
+        }
     }
 }
@@ -0,0 +1,335 @@
+package com.storage.storageservice.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.GenerationJobDto;
+import com.storage.storageservice.model.Artifact;
+import com.storage.storageservice.service.ArtifactBatchService;
+import com.storage.storageservice.service.ArtifactCacheService;
+import com.storage.storageservice.service.ArtifactGenerationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.module.FindException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates artifacts through a three-stage pipeline: construction, {@code saveBatch}-style persistence
+ * and Redis {@code multiset}. Stages are connected by bounded queues, so a slow stage throttles the ones
+ * before it instead of piling batches up in memory.
+ * <p>
+ * Every stage worker occupies a thread of the shared executor for the whole job, therefore a job only
+ * starts when the pool has a free thread for each of its workers.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactGenerationServiceImpl implements ArtifactGenerationService {
+
+    private static final long QUEUE_POLL_MILLIS = 100;
+    private static final List<?> END_OF_STAGE = new ArrayList<>(0);
+
+    private final ExecutorService executorService;
+    private final ArtifactBatchService artifactBatchService;
+    private final ArtifactCacheService artifactCacheService;
+
+    private final Cache<UUID, GenerationJob> jobs = CacheBuilder.newBuilder()
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    @Value("${app.executor.pool-size:8}")
+    private int poolSize;
+
+    @Value("${artifact.generation.batch-size:50}")
+    private int batchSize;
+
+    @Value("${artifact.generation.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${artifact.generation.producers:2}")
+    private int producers;
+
+    @Value("${artifact.generation.writers:4}")
+    private int writers;
+
+    @Value("${artifact.generation.cachers:2}")
+    private int cachers;
+
+    private Semaphore workerSlots;
+
+    @PostConstruct
+    void init() {
+        int workers = producers + writers + cachers;
+        if (workers > poolSize) {
+            throw new IllegalStateException("Generation pipeline needs %d threads, executor has only %d"
+                    .formatted(workers, poolSize));
+        }
+        workerSlots = new Semaphore(poolSize);
+    }
+
+    @Override
+    public UUID start(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        int workers = producers + writers + cachers;
+        if (!workerSlots.tryAcquire(workers)) {
+            throw new IllegalStateException("Generation pipeline is busy, try again later");
+        }
+        GenerationJob job = new GenerationJob(count, queueCapacity);
+        jobs.put(job.id, job);
+        log.info("Generation job {} started: {} artifacts", job.id, count);
+
+        for (int i = 0; i < producers; i++) {
+            submit(() -> produce(job));
+        }
+        for (int i = 0; i < writers; i++) {
+            submit(() -> write(job));
+        }
+        for (int i = 0; i < cachers; i++) {
+            submit(() -> cache(job));
+        }
+        return job.id;
+    }
+
+    @Override
+    public GenerationJobDto getJob(UUID jobId) {
+        GenerationJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new FindException("Generation job by id %s not found".formatted(jobId));
+        }
+        return job.toDto();
+    }
+
+    private void submit(Runnable worker) {
+        executorService.execute(() -> {
+            try {
+                worker.run();
+            } finally {
+                workerSlots.release();
+            }
+        });
+    }
+
+    private void produce(GenerationJob job) {
+        try {
+            int size;
+            while (!job.failed() && (size = job.claim(batchSize)) > 0) {
+                List<Artifact> batch = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    batch.add(getRandomArtifact());
+                }
+                job.produced.addAndGet(size);
+                put(job, job.toPersist, batch);
+            }
+        } catch (Exception e) {
+            job.fail(e);
+        } finally {
+            if (job.liveProducers.decrementAndGet() == 0) {
+                closeStage(job, job.toPersist, writers);
+            }
+        }
+    }
+
+    private void write(GenerationJob job) {
+        try {
+            List<Artifact> batch;
+            while ((batch = take(job, job.toPersist)) != null) {
+                List<ArtifactDto> saved = artifactBatchService.persistBatch(batch);
+                job.persisted.addAndGet(batch.size());
+                job.persistedRows.addAndGet(batch.stream().mapToLong(a -> 1 + a.getChildren().size()).sum());
+                put(job, job.toCache, saved);
+            }
+        } catch (Exception e) {
+            job.fail(e);
+        } finally {
+            if (job.liveWriters.decrementAndGet() == 0) {
+                closeStage(job, job.toCache, cachers);
+            }
+        }
+    }
+
+    private void cache(GenerationJob job) {
+        try {
+            List<ArtifactDto> batch;
+            while ((batch = take(job, job.toCache)) != null) {
+                artifactCacheService.multiset(batch);
+                job.cached.addAndGet(batch.size());
+            }
+        } catch (Exception e) {
+            job.fail(e);
+        } finally {
+            if (job.liveCachers.decrementAndGet() == 0) {
+                job.finish();
+            }
+        }
+    }
+
+    /**
+     * Blocks while the queue is full, but gives up as soon as the job has failed,
+     * so a dead downstream stage can never leave its producers hanging.
+     */
+    private static <T> void put(GenerationJob job, BlockingQueue<T> queue, T item) throws InterruptedException {
+        while (!job.failed()) {
+            if (queue.offer(item, QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the next batch or {@code null} once the previous stage is done or the job has failed
+     */
+    private static <T> List<T> take(GenerationJob job, BlockingQueue<List<T>> queue) throws InterruptedException {
+        while (!job.failed()) {
+            List<T> batch = queue.poll(QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (batch == END_OF_STAGE) {
+                return null;
+            }
+            if (batch != null) {
+                return batch;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void closeStage(GenerationJob job, BlockingQueue<List<T>> queue, int consumers) {
+        try {
+            for (int i = 0; i < consumers; i++) {
+                put(job, queue, (List<T>) END_OF_STAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        }
+    }
+
+    private Artifact getRandomArtifact() {
+        Artifact parent = Artifact.builder()
+                .name(generateRandomString(20))
+                .surname(generateRandomString(20))
+                .payload(Map.of(
+                        "series", generateRandomString(20),
+                        "department", generateRandomString(20),
+                        "price", ThreadLocalRandom.current().nextInt()
+                ))
+                .build();
+
+        parent.addChild(Artifact.builder()
+                .name("Random")
+                .surname("Random")
+                .payload(Map.of(
+                        "series", generateRandomString(20),
+                        "department", generateRandomString(20),
+                        "price", ThreadLocalRandom.current().nextInt()
+                ))
+                .build());
+
+        parent.addChild(Artifact.builder()
+                .name("Random")
+                .surname("Random")
+                .payload(Map.of(
+                        "series", generateRandomString(20),
+                        "department", generateRandomString(20),
+                        "price", ThreadLocalRandom.current().nextInt()
+                ))
+                .build());
+
+        return parent;
+    }
+
+    private String generateRandomString(int length) {
+        return ThreadLocalRandom.current()
+                .ints(length, 'a', 'z' + 1)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+    }
+
+    private class GenerationJob {
+
+        private final UUID id = UUID.randomUUID();
+        private final long requested;
+        private final long startedAt = System.nanoTime();
+        private final AtomicLong unclaimed;
+        private final AtomicLong produced = new AtomicLong();
+        private final AtomicLong persisted = new AtomicLong();
+        private final AtomicLong persistedRows = new AtomicLong();
+        private final AtomicLong cached = new AtomicLong();
+        private final AtomicInteger liveProducers = new AtomicInteger(producers);
+        private final AtomicInteger liveWriters = new AtomicInteger(writers);
+        private final AtomicInteger liveCachers = new AtomicInteger(cachers);
+        private final BlockingQueue<List<Artifact>> toPersist;
+        private final BlockingQueue<List<ArtifactDto>> toCache;
+
+        private volatile GenerationJobDto.Status status = GenerationJobDto.Status.RUNNING;
+        private volatile String error;
+        private volatile long finishedAt;
+
+        GenerationJob(long requested, int queueCapacity) {
+            this.requested = requested;
+            this.unclaimed = new AtomicLong(requested);
+            this.toPersist = new ArrayBlockingQueue<>(queueCapacity);
+            this.toCache = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        int claim(int max) {
+            long before = unclaimed.getAndUpdate(left -> Math.max(0, left - max));
+            return (int) Math.min(before, max);
+        }
+
+        boolean failed() {
+            return status == GenerationJobDto.Status.FAILED;
+        }
+
+        synchronized void fail(Exception e) {
+            if (status == GenerationJobDto.Status.RUNNING) {
+                log.error("Generation job {} failed", id, e);
+                error = e.getMessage();
+                status = GenerationJobDto.Status.FAILED;
+                finishedAt = System.nanoTime();
+            }
+        }
+
+        synchronized void finish() {
+            if (status == GenerationJobDto.Status.RUNNING) {
+                status = GenerationJobDto.Status.COMPLETED;
+                finishedAt = System.nanoTime();
+                log.info("Generation job {} completed: {} artifacts, {} rows", id, persisted.get(), persistedRows.get());
+            }
+        }
+
+        GenerationJobDto toDto() {
+            long end = status == GenerationJobDto.Status.RUNNING ? System.nanoTime() : finishedAt;
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+            long rows = persistedRows.get();
+            return GenerationJobDto.builder()
+                    .jobId(id)
+                    .status(status)
+                    .requested(requested)
+                    .produced(produced.get())
+                    .persisted(persisted.get())
+                    .cached(cached.get())
+                    .persistedRows(rows)
+                    .elapsedMillis(elapsedMillis)
+                    .rowsPerSecond(elapsedMillis == 0 ? 0 : rows * 1000.0 / elapsedMillis)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.storage.storageservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.storage.storageservice.dto.CacheTierStatsDto;
+import com.storage.storageservice.service.ArtifactQueryCacheService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Containment results per canonical filter, bounded by an approximate byte weight.
+ * <p>
+ * Artifacts are only ever inserted, so a cached result goes stale only when a new payload contains
+ * the filter. Entries are indexed by the first key of their filter: a payload can only contain filters
+ * whose first key it has, so a write checks those few entries instead of the whole cache.
+ * Writes made on other nodes are not seen here; the TTL bounds how long such a result may lag.
+ */
+@Service
+@RequiredArgsConstructor
+public class ArtifactQueryCacheServiceImpl implements ArtifactQueryCacheService {
+
+    // Пустой фильтр содержится в любом payload
+    private static final String ANY_KEY = "";
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int ID_WEIGHT = 16;
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<String, Set<Entry>> entriesByFirstKey = new ConcurrentHashMap<>();
+
+    @Value("${artifact.query.result-cache.max-weight:8388608}")
+    private long maxWeight;
+
+    @Value("${artifact.query.result-cache.max-entry-weight:16384}")
+    private int maxEntryWeight;
+
+    @Value("${artifact.query.result-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private ObjectWriter canonicalWriter;
+    private Cache<String, Entry> results;
+
+    @PostConstruct
+    void init() {
+        canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        results = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .removalListener(this::unindex)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String key(Map<String, ?> filter) {
+        try {
+            String json = canonicalWriter.writeValueAsString(filter);
+            return weight(json, 0) > maxEntryWeight ? null : json;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public List<UUID> get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = results.getIfPresent(key);
+        return entry == null ? null : entry.ids();
+    }
+
+    @Override
+    public void put(String key, Map<String, ?> filter, List<UUID> ids, long generation) {
+        if (key == null || this.generation.get() != generation) {
+            return;
+        }
+        Entry entry = new Entry(key, filter, List.copyOf(ids), weight(key, ids.size()));
+        entriesByFirstKey.compute(firstKey(filter), (firstKey, entries) -> {
+            Set<Entry> set = entries == null ? ConcurrentHashMap.newKeySet() : entries;
+            set.add(entry);
+            return set;
+        });
+        results.put(key, entry);
+        // Запись могла завершиться между проверкой поколения и put и не увидеть новую запись в индексе
+        if (this.generation.get() != generation) {
+            results.asMap().remove(key, entry);
+        }
+    }
+
+    @Override
+    public void evict(String key) {
+        if (key != null) {
+            results.invalidate(key);
+        }
+    }
+
+    @Override
+    public void invalidateMatching(Collection<Map<String, Object>> payloads) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(payloads);
+                }
+            });
+        } else {
+            invalidateNow(payloads);
+        }
+    }
+
+    @Override
+    public CacheTierStatsDto stats() {
+        CacheStats stats = results.stats();
+        return CacheTierStatsDto.of(stats.hitCount(), stats.missCount(), results.size());
+    }
+
+    private void invalidateNow(Collection<Map<String, Object>> payloads) {
+        generation.incrementAndGet();
+        Set<Entry> stale = new HashSet<>();
+        for (Map<String, Object> payload : payloads) {
+            // payload IS NULL не попадает ни под один фильтр
+            if (payload == null) {
+                continue;
+            }
+            collectMatching(ANY_KEY, payload, stale);
+            payload.keySet().forEach(key -> collectMatching(key, payload, stale));
+        }
+        stale.forEach(entry -> results.asMap().remove(entry.key(), entry));
+    }
+
+    private void collectMatching(String firstKey, Map<String, Object> payload, Set<Entry> stale) {
+        for (Entry entry : entriesByFirstKey.getOrDefault(firstKey, Collections.emptySet())) {
+            if (contains(payload, entry.filter())) {
+                stale.add(entry);
+            }
+        }
+    }
+
+    private void unindex(RemovalNotification<String, Entry> notification) {
+        Entry entry = notification.getValue();
+        if (entry == null) {
+            return;
+        }
+        entriesByFirstKey.computeIfPresent(firstKey(entry.filter()), (firstKey, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static String firstKey(Map<String, ?> filter) {
+        return filter.isEmpty() ? ANY_KEY : Collections.min(filter.keySet());
+    }
+
+    private static int weight(String key, int ids) {
+        return ENTRY_OVERHEAD + key.length() * 2 + ids * ID_WEIGHT;
+    }
+
+    /**
+     * Mirrors jsonb {@code @>} closely enough for invalidation: it may report a match that PostgreSQL
+     * would not (which only costs a re-query) but never misses one.
+     */
+    static boolean contains(Object document, Object filter) {
+        if (filter instanceof Map<?, ?> filterMap) {
+            if (!(document instanceof Map<?, ?> documentMap)) {
+                return false;
+            }
+            for (Map.Entry<?, ?> e : filterMap.entrySet()) {
+                if (!documentMap.containsKey(e.getKey()) || !contains(documentMap.get(e.getKey()), e.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (filter instanceof Collection<?> filterItems) {
+            return document instanceof Collection<?> documentItems
+                    && filterItems.stream().allMatch(item -> documentItems.stream().anyMatch(d -> contains(d, item)));
+        }
+        if (document instanceof Collection<?> documentItems) {
+            return documentItems.stream().anyMatch(d -> contains(d, filter));
+        }
+        if (document instanceof Number a && filter instanceof Number b) {
+            return a.doubleValue() == b.doubleValue();
+        }
+        return Objects.equals(document, filter)
+                || (document != null && filter != null && document.toString().equals(filter.toString()));
+    }
+
+    /**
+     * Identity equality on purpose: the index and conditional removes must not confuse
+     * an entry with a newer one cached under the same key.
+     */
+    private static final class Entry {
+        private final String key;
+        private final Map<String, ?> filter;
+        private final List<UUID> ids;
+        private final int weight;
+
+        private Entry(String key, Map<String, ?> filter, List<UUID> ids, int weight) {
+            this.key = key;
+            this.filter = filter;
+            this.ids = ids;
+            this.weight = weight;
+        }
+
+        String key() {
+            return key;
+        }
+
+        Map<String, ?> filter() {
+            return filter;
+        }
+
+        List<UUID> ids() {
+            return ids;
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+}
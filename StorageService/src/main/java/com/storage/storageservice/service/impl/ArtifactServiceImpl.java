@@ -1,27 +1,62 @@
 package com.storage.storageservice.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.storage.storageservice.dao.ArtifactDao;
+import com.storage.storageservice.dto.ArtifactAggregationDto;
+import com.storage.storageservice.dto.ArtifactAggregationRequest;
+import com.storage.storageservice.dto.ArtifactCacheStatsDto;
 import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.ArtifactImportReportDto;
+import com.storage.storageservice.dto.ArtifactPageDto;
+import com.storage.storageservice.dto.CacheTierStatsDto;
+import com.storage.storageservice.dto.CustomArtifactBatchDto;
+import com.storage.storageservice.dto.CustomArtifactBatchRequest;
 import com.storage.storageservice.dto.CustomArtifactRequest;
+import com.storage.storageservice.dto.GenerationJobDto;
 import com.storage.storageservice.mapper.ArtifactMapper;
 import com.storage.storageservice.model.Artifact;
 import com.storage.storageservice.repository.ArtifactRepository;
 import com.storage.storageservice.service.ArtifactBatchService;
 import com.storage.storageservice.service.ArtifactCacheService;
+import com.storage.storageservice.service.ArtifactGenerationService;
+import com.storage.storageservice.service.ArtifactQueryCacheService;
 import com.storage.storageservice.service.ArtifactService;
+import com.storage.storageservice.service.PayloadIndexService;
+import com.storage.storageservice.utils.ArtifactTreeUtils;
 import com.storage.storageservice.utils.DynamicDtoMapper;
+import com.storage.storageservice.utils.KeysetCursor;
+import com.storage.storageservice.utils.SingleFlight;
 import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.module.FindException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -34,96 +69,268 @@ public class ArtifactServiceImpl implements ArtifactService {
     private final ArtifactCacheService artifactCacheService;
     private final ArtifactMapper artifactMapper;
     private final ArtifactBatchService artifactBatchService;
+    private final ArtifactGenerationService artifactGenerationService;
+    private final ArtifactDao artifactDao;
+    private final PayloadIndexService payloadIndexService;
+    private final ArtifactQueryCacheService artifactQueryCacheService;
+    private final SingleFlight<UUID, ArtifactDto> artifactLoads = new SingleFlight<>();
+
+    @Value("${artifact.import.batch-size:1000}")
+    private int importBatchSize;
+
+    @Value("${artifact.subtree.max-depth:64}")
+    private int maxSubtreeDepth;
+
+    @Value("${artifact.projection.max-batch-size:500}")
+    private int maxProjectionBatchSize;
+
+    @Value("${artifact.query.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${artifact.query.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${artifact.query.stream-fetch-size:1000}")
+    private int streamFetchSize;
+
+    @Value("${artifact.aggregation.max-group-keys:8}")
+    private int maxGroupKeys;
+
+    @Value("${artifact.aggregation.max-groups:10000}")
+    private int maxGroups;
 
     @Override
     @Transactional
     public void addNewArtifact(ArtifactDto dto) {
-        addNewArtifactRecursive(dto, null);
+        // Один батч на уровень дерева вместо save на каждый узел
+        Artifact root = ArtifactTreeUtils.toNewEntityTree(dto);
+        ArtifactTreeUtils.levels(List.of(root)).forEach(artifactDao::batchInsert);
+        artifactQueryCacheService.invalidateMatching(ArtifactTreeUtils.preOrder(root).stream()
+                .map(Artifact::getPayload)
+                .toList());
     }
 
     @Override
-    @Transactional
-    public void generateSomeArtifacts(int count) {
-        final int BATCH_SIZE = 50;
-        List<Artifact> batch = new ArrayList<>(BATCH_SIZE);
+    public UUID generateSomeArtifacts(int count) {
+        return artifactGenerationService.start(count);
+    }
+
+    @Override
+    public GenerationJobDto getGenerationJob(UUID jobId) {
+        return artifactGenerationService.getJob(jobId);
+    }
+
+    @Override
+    public long bulkInsert(List<ArtifactDto> dtos) {
+        return artifactBatchService.copyBatch(dtos);
+    }
 
-        for (int i = 0; i < count; i++) {
-            Artifact artifact = getRandomArtifact();
+    /**
+     * Reads one object at a time from the request stream, so heap use is bounded by the batch size.
+     * The stream is not read while a batch is being written, which throttles the client through TCP.
+     */
+    @Override
+    public ArtifactImportReportDto importNdjson(InputStream ndjson) {
+        long started = System.nanoTime();
+        ArtifactImportReportDto report = new ArtifactImportReportDto();
+        List<ArtifactDto> batch = new ArrayList<>(importBatchSize);
+        long batchOffset = 0;
 
-            batch.add(artifact);
-            if (batch.size() == BATCH_SIZE) {
-                artifactBatchService.saveBatch(new ArrayList<>(batch));
-                batch.clear();
+        try (JsonParser parser = objectMapper.getFactory().createParser(ndjson)) {
+            while (parser.nextToken() != null) {
+                if (batch.isEmpty()) {
+                    batchOffset = parser.currentTokenLocation().getByteOffset();
+                }
+                batch.add(objectMapper.readValue(parser, ArtifactDto.class));
+                report.setReceived(report.getReceived() + 1);
+                if (batch.size() == importBatchSize) {
+                    importBatch(batch, batchOffset, report);
+                    batch.clear();
+                }
             }
+            importBatch(batch, batchOffset, report);
+        } catch (IOException e) {
+            // После битого JSON поток не синхронизировать: дописываем разобранное и останавливаемся
+            importBatch(batch, batchOffset, report);
+            JsonLocation location = e instanceof JsonProcessingException jpe ? jpe.getLocation() : null;
+            report.getFailedBatches().add(ArtifactImportReportDto.FailedBatch.builder()
+                    .firstRecord(report.getReceived())
+                    .lastRecord(report.getReceived())
+                    .byteOffset(location == null ? -1 : location.getByteOffset())
+                    .error("Import stopped: " + e.getMessage())
+                    .build());
         }
-        if (!batch.isEmpty()) {
-            artifactBatchService.saveBatch(batch);
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        report.setElapsedMillis(elapsedMillis);
+        report.setRecordsPerSecond(elapsedMillis == 0 ? 0 : report.getImported() * 1000.0 / elapsedMillis);
+        log.info("NDJSON import: {} received, {} imported, {} failed in {} ms",
+                report.getReceived(), report.getImported(), report.getFailed(), elapsedMillis);
+        return report;
+    }
+
+    private void importBatch(List<ArtifactDto> batch, long byteOffset, ArtifactImportReportDto report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long lastRecord = report.getReceived() - 1;
+        try {
+            report.setRows(report.getRows() + artifactBatchService.copyBatch(batch));
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            log.warn("NDJSON import batch at byte {} failed", byteOffset, e);
+            report.setFailed(report.getFailed() + batch.size());
+            report.getFailedBatches().add(ArtifactImportReportDto.FailedBatch.builder()
+                    .firstRecord(lastRecord - batch.size() + 1)
+                    .lastRecord(lastRecord)
+                    .byteOffset(byteOffset)
+                    .error(e.getMessage())
+                    .build());
         }
     }
 
-    private Artifact getRandomArtifact() {
-        Artifact parent = Artifact.builder()
-                .name(generateRandomString(20))
-                .surname(generateRandomString(20))
-                .payload(Map.of(
-                        "series", generateRandomString(20),
-                        "department", generateRandomString(20),
-                        "price", ThreadLocalRandom.current().nextInt()
-                ))
-                .build();
+    @Override
+    public ArtifactDto getArtByJsonField(String key, String value) {
+        return getSingle(Map.of(key, value));
+    }
 
-        parent.addChild(Artifact.builder()
-                .name("Random")
-                .surname("Random")
-                .payload(Map.of(
-                        "series", generateRandomString(20),
-                        "department", generateRandomString(20),
-                        "price", ThreadLocalRandom.current().nextInt()
-                ))
-                .build());
+    @Override
+    public ArtifactDto getArtByNativeJsonFields(Map<String, Object> request) {
+        return getSingle(request);
+    }
 
-        parent.addChild(Artifact.builder()
-                .name("Random")
-                .surname("Random")
-                .payload(Map.of(
-                        "series", generateRandomString(20),
-                        "department", generateRandomString(20),
-                        "price", ThreadLocalRandom.current().nextInt()
-                ))
-                .build());
+    @Override
+    public ArtifactPageDto getPageByJsonField(String key, String value, String cursor, Integer limit) {
+        // {key: value} даёт тот же jsonb, что и jsonb_build_object(:key, :value)
+        return getPage(Map.of(key, value), cursor, limit);
+    }
 
-        return parent;
+    @Override
+    public ArtifactPageDto getPageByNativeJsonFields(Map<String, Object> request, String cursor, Integer limit) {
+        return getPage(request, cursor, limit);
     }
 
+    /**
+     * Runs in its own read-only transaction so PostgreSQL can serve the query through a cursor;
+     * the output is flushed after every fetched chunk.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamByNativeJsonFields(Map<String, Object> request, OutputStream out) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            long[] written = {0};
+            artifactDao.streamByJson(request, streamFetchSize, artifact -> {
+                try {
+                    writer.writeValue(generator, toFlatDto(artifact));
+                    generator.writeRaw('\n');
+                    if (++written[0] % streamFetchSize == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    @Override
+    public ArtifactPageDto getPageByRange(String key, Long from, Long to, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        return toPage(artifactDao.findPageByRange(key, from, to, KeysetCursor.decode(cursor), pageSize + 1), pageSize);
+    }
 
     @Override
-    @Transactional(readOnly = true)
-    public ArtifactDto getArtByJsonField(String key, String value) {
-        Artifact art = artifactRepository.findByJsonField(key, value);
-        // TODO to mapper
+    public ArtifactAggregationDto aggregate(ArtifactAggregationRequest request) {
+        List<String> groupBy = request.getGroupBy() == null ? List.of() : request.getGroupBy();
+        if (groupBy.size() > maxGroupKeys) {
+            throw new IllegalArgumentException("At most %d group keys, got %d".formatted(maxGroupKeys, groupBy.size()));
+        }
+        if (groupBy.stream().anyMatch(key -> key == null || key.isBlank()) || Set.copyOf(groupBy).size() != groupBy.size()) {
+            throw new IllegalArgumentException("Group keys must be distinct and non-blank: " + groupBy);
+        }
+        Map<String, Object> filter = request.getFilter() == null ? Map.of() : request.getFilter();
+        // Лишняя группа показывает, что результат обрезан
+        Supplier<List<ArtifactAggregationDto.Group>> query =
+                () -> artifactDao.aggregate(groupBy, request.getMetric(), filter, maxGroups + 1);
+        List<ArtifactAggregationDto.Group> groups = filter.isEmpty() ? query.get() : recordContainment(filter.keySet(), query);
+        boolean truncated = groups.size() > maxGroups;
+        return new ArtifactAggregationDto(truncated ? groups.subList(0, maxGroups) : groups, truncated);
+    }
+
+    /**
+     * Как и прежний запрос через репозиторий: больше одного совпадения - ошибка.
+     * Найденные id кэшируются по фильтру, при попадании артефакт читается по первичному ключу.
+     */
+    private ArtifactDto getSingle(Map<String, ?> filter) {
+        String cacheKey = artifactQueryCacheService.key(filter);
+        List<UUID> cachedIds = artifactQueryCacheService.get(cacheKey);
+        if (cachedIds != null) {
+            List<Artifact> rows = artifactDao.findByIds(cachedIds);
+            if (rows.size() == cachedIds.size()) {
+                return single(filter, rows);
+            }
+            artifactQueryCacheService.evict(cacheKey);
+        }
+        long generation = artifactQueryCacheService.generation();
+        List<Artifact> rows = recordContainment(filter.keySet(), () -> artifactDao.findPageByJson(filter, null, 2));
+        artifactQueryCacheService.put(cacheKey, filter, rows.stream().map(Artifact::getId).toList(), generation);
+        return single(filter, rows);
+    }
+
+    private ArtifactDto single(Map<String, ?> filter, List<Artifact> rows) {
+        if (rows.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1);
+        }
+        if (rows.isEmpty()) {
+            throw new FindException("Artifact by payload %s not found".formatted(filter));
+        }
+        return toFlatDto(rows.getFirst());
+    }
+
+    private ArtifactPageDto getPage(Map<String, ?> filter, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        UUID afterId = KeysetCursor.decode(cursor);
+        // Лишняя строка показывает, есть ли следующая страница
+        return toPage(recordContainment(filter.keySet(),
+                () -> artifactDao.findPageByJson(filter, afterId, pageSize + 1)), pageSize);
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.clamp(limit, 1, maxPageSize);
+    }
+
+    private ArtifactPageDto toPage(List<Artifact> rows, int pageSize) {
+        List<ArtifactDto> items = rows.stream()
+                .limit(pageSize)
+                .map(this::toFlatDto)
+                .toList();
+        String nextCursor = rows.size() > pageSize ? KeysetCursor.encode(items.getLast().getId()) : null;
+        return new ArtifactPageDto(items, nextCursor);
+    }
+
+    private ArtifactDto toFlatDto(Artifact art) {
         return ArtifactDto.builder()
+                .id(art.getId())
                 .name(art.getName())
                 .surname(art.getSurname())
                 .payload(art.getPayload())
                 .build();
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public ArtifactDto getArtByNativeJsonFields(Map<String, Object> request) {
-        String json;
+    /**
+     * Runs a payload lookup and reports its keys and latency to the index advisor.
+     */
+    private <T> T recordContainment(Collection<String> keys, Supplier<T> lookup) {
+        long started = System.nanoTime();
         try {
-            json = objectMapper.writeValueAsString(request);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+            return lookup.get();
+        } finally {
+            payloadIndexService.record(keys, System.nanoTime() - started);
         }
-        Artifact art = artifactRepository.findByJson(json);
-        return ArtifactDto.builder()
-                .name(art.getName())
-                .surname(art.getSurname())
-                .payload(art.getPayload())
-                .build();
     }
 
     @Override
@@ -133,36 +340,95 @@ public class ArtifactServiceImpl implements ArtifactService {
         return mapper.mapToDto(tuple, request.getRequiredResponseFields(), ArtifactDto.class);
     }
 
-    @Transactional
     @Override
-    public ArtifactDto getById(UUID id) {
+    public CustomArtifactBatchDto getCustomByIds(CustomArtifactBatchRequest request) {
+        List<UUID> ids = request.getIds() == null ? List.of() : request.getIds();
+        if (ids.size() > maxProjectionBatchSize) {
+            throw new IllegalArgumentException("At most %d ids per request, got %d".formatted(maxProjectionBatchSize, ids.size()));
+        }
+        if (ids.isEmpty()) {
+            return new CustomArtifactBatchDto(List.of(), List.of());
+        }
+        Set<String> fields = request.getRequiredResponseFields();
+        Map<UUID, Tuple> rows = artifactRepository.findProjectedByIds(new LinkedHashSet<>(ids), fields);
+
+        DynamicDtoMapper.TupleMapper<ArtifactDto> rowMapper = mapper.mapperFor(fields, ArtifactDto.class);
+        List<ArtifactDto> items = new ArrayList<>(rows.size());
+        List<UUID> missingIds = new ArrayList<>();
+        for (UUID id : ids) {
+            Tuple row = rows.get(id);
+            if (row == null) {
+                missingIds.add(id);
+            } else {
+                items.add(rowMapper.map(row));
+            }
+        }
+        return new CustomArtifactBatchDto(items, missingIds);
+    }
+
+    /**
+     * Read-through: on a miss one caller per id loads the whole subtree and fills the cache,
+     * concurrent callers for the same id wait for that load instead of querying the database.
+     * The cache always holds the tree down to {@code maxSubtreeDepth}; a smaller depth is cut from it.
+     */
+    @Override
+    public ArtifactDto getById(UUID id, Integer depth) {
         ArtifactDto artifactDto = artifactCacheService.get(id.toString());
         if (artifactDto != null) {
             log.info("From redis cache");
-            return artifactDto;
+        } else {
+            artifactDto = artifactLoads.load(id, () -> {
+                ArtifactDto loaded = loadSubtrees(List.of(id)).stream()
+                        .findFirst()
+                        .orElseThrow(() -> new NoSuchElementException("Artifact %s not found".formatted(id)));
+                artifactCacheService.put(loaded);
+                return loaded;
+            });
         }
-        Artifact artifact = artifactRepository.findById(id).orElseThrow();
-        return artifactMapper.toDto(artifact);
+        return depth == null || depth >= maxSubtreeDepth
+                ? artifactDto
+                : ArtifactTreeUtils.prune(artifactDto, Math.max(depth, 0));
     }
 
-    private void addNewArtifactRecursive(ArtifactDto dto, Artifact parent) {
-        Artifact artifact = new Artifact();
-        artifact.setName(dto.getName());
-        artifact.setSurname(dto.getSurname());
-        artifact.setPayload(dto.getPayload());
-        if (parent != null) {
-            artifact.setParent(parent);
-        }
-        if (dto.getChildren() != null) {
-            dto.getChildren().forEach(c -> addNewArtifactRecursive(c, artifact));
+    @Override
+    public List<ArtifactDto> getByIds(Collection<UUID> ids) {
+        List<UUID> distinctIds = ids.stream().distinct().toList();
+        Map<UUID, ArtifactDto> found = new HashMap<>(artifactCacheService.multiget(distinctIds));
+
+        List<UUID> misses = distinctIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+        if (!misses.isEmpty()) {
+            List<ArtifactDto> loaded = loadSubtrees(misses);
+            loaded.forEach(dto -> found.put(dto.getId(), dto));
+            if (!loaded.isEmpty()) {
+                artifactCacheService.multiset(loaded);
+            }
         }
-        artifactRepository.save(artifact);
+        return distinctIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Один рекурсивный запрос на все деревья вместо ленивой загрузки детей по уровням.
+     */
+    private List<ArtifactDto> loadSubtrees(List<UUID> ids) {
+        return artifactDao.findSubtrees(ids, maxSubtreeDepth).stream()
+                .map(artifactMapper::toDto)
+                .toList();
     }
 
-    private String generateRandomString(int length) {
-        return ThreadLocalRandom.current()
-                .ints(length, 'a', 'z' + 1)
-                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
-                .toString();
+    @Override
+    public ArtifactCacheStatsDto getCacheStats() {
+        ArtifactCacheStatsDto stats = artifactCacheService.stats();
+        stats.setQueries(artifactQueryCacheService.stats());
+        return stats;
+    }
+
+    @Override
+    public CacheTierStatsDto getProjectionPlanStats() {
+        return artifactRepository.projectionPlanStats();
     }
 }
@@ -0,0 +1,130 @@
+package com.storage.storageservice.service.impl;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.storage.storageservice.model.PropertyType;
+import com.storage.storageservice.repository.DocumentTypeRepository;
+import com.storage.storageservice.repository.PropertyTypeRepository;
+import com.storage.storageservice.repository.PropertyTypeRepository.PropertyTypeRef;
+import com.storage.storageservice.service.DocumentSchemaCacheService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.module.FindException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Property name to property type id per document type, loaded with one query per type and warmed at startup.
+ * <p>
+ * Property types are only ever added, so a cached schema can only lack a property, never hold a wrong one.
+ * A lookup that misses reloads the schema before failing: this covers types added on other nodes
+ * and a load that raced with {@link #invalidate}. Such reloads happen at most once per
+ * {@code document.schema-cache.min-reload-interval-millis} per type, so a client repeating an unknown name
+ * does not turn every request into a query, and concurrent readers keep the old schema while it reloads.
+ * Document types that do not exist are never cached.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentSchemaCacheServiceImpl implements DocumentSchemaCacheService {
+
+    private final PropertyTypeRepository propertyTypeRepository;
+    private final DocumentTypeRepository documentTypeRepository;
+
+    @Value("${document.schema-cache.max-types:1000}")
+    private long maxTypes;
+
+    @Value("${document.schema-cache.min-reload-interval-millis:5000}")
+    private long minReloadIntervalMillis;
+
+    private LoadingCache<UUID, Schema> schemas;
+
+    @PostConstruct
+    void init() {
+        schemas = CacheBuilder.newBuilder()
+                .maximumSize(maxTypes)
+                .build(CacheLoader.from(this::load));
+        long now = System.nanoTime();
+        Map<UUID, Schema> all = propertyTypeRepository.findAllRefs().stream()
+                .collect(Collectors.groupingBy(PropertyTypeRef::getDocumentTypeId, Collectors.collectingAndThen(
+                        Collectors.toList(), refs -> new Schema(properties(refs), now))));
+        schemas.putAll(all);
+        log.info("Warmed document schema cache with {} document types", all.size());
+    }
+
+    @Override
+    public PropertyType resolve(UUID documentTypeId, String propertyName) {
+        UUID id = schema(documentTypeId, List.of(propertyName)).get(propertyName);
+        if (id == null) {
+            throw new FindException("PropertyType by name %s and docTypeId %s not found"
+                    .formatted(propertyName, documentTypeId));
+        }
+        return propertyTypeRepository.getReferenceById(id);
+    }
+
+    @Override
+    public Map<String, UUID> schema(UUID documentTypeId, Collection<String> propertyNames) {
+        Schema schema = get(documentTypeId);
+        if (schema.properties().keySet().containsAll(propertyNames)
+                || System.nanoTime() - schema.loadedAt() < TimeUnit.MILLISECONDS.toNanos(minReloadIntervalMillis)) {
+            return schema.properties();
+        }
+        // Перечитывает в этом потоке; если схему уже перечитывает другой поток, ничего не делает
+        schemas.refresh(documentTypeId);
+        return get(documentTypeId).properties();
+    }
+
+    @Override
+    public void invalidate(UUID documentTypeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schemas.invalidate(documentTypeId);
+                }
+            });
+        } else {
+            schemas.invalidate(documentTypeId);
+        }
+    }
+
+    private Schema get(UUID documentTypeId) {
+        try {
+            return schemas.getUnchecked(documentTypeId);
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    private Schema load(UUID documentTypeId) {
+        List<PropertyTypeRef> refs = propertyTypeRepository.findRefsByDocumentTypeId(documentTypeId);
+        // Пустую схему кэшируем только для существующего типа, иначе случайные id вытеснят настоящие
+        if (refs.isEmpty() && !documentTypeRepository.existsById(documentTypeId)) {
+            throw new FindException("DocumentType by id %s not found".formatted(documentTypeId));
+        }
+        return new Schema(properties(refs), System.nanoTime());
+    }
+
+    private static Map<String, UUID> properties(List<PropertyTypeRef> refs) {
+        // Уникальность имени в схеме не гарантирована базой, берём первое
+        return refs.stream().collect(Collectors.toUnmodifiableMap(
+                PropertyTypeRef::getPropertyName, PropertyTypeRef::getId, (first, second) -> first));
+    }
+
+    private record Schema(Map<String, UUID> properties, long loadedAt) {
+    }
+}
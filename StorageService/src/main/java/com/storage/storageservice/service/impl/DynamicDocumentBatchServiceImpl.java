@@ -0,0 +1,24 @@
+package com.storage.storageservice.service.impl;
+
+import com.storage.storageservice.dao.DynamicDocumentDao;
+import com.storage.storageservice.model.DynamicDocument;
+import com.storage.storageservice.service.DynamicDocumentBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DynamicDocumentBatchServiceImpl implements DynamicDocumentBatchService {
+
+    private final DynamicDocumentDao dynamicDocumentDao;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public long copyBatch(List<DynamicDocument> batch) {
+        return dynamicDocumentDao.copyIn(batch);
+    }
+}
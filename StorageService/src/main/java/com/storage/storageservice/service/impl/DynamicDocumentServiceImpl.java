@@ -1,25 +1,66 @@
 package com.storage.storageservice.service.impl;
 
+import com.storage.storageservice.dao.DynamicDocumentDao;
+import com.storage.storageservice.dao.DynamicDocumentDao.FieldCondition;
+import com.storage.storageservice.dto.DynamicDocumentBulkReportDto;
+import com.storage.storageservice.dto.DynamicDocumentBulkRequest;
 import com.storage.storageservice.dto.DynamicDocumentDto;
+import com.storage.storageservice.dto.DynamicDocumentPageDto;
+import com.storage.storageservice.dto.DynamicDocumentQueryRequest;
 import com.storage.storageservice.dto.DynamicFieldDto;
 import com.storage.storageservice.model.DynamicDocument;
-import com.storage.storageservice.model.DynamicFieldInfoStr;
+import com.storage.storageservice.model.DynamicFieldInfoCommon;
+import com.storage.storageservice.model.FieldContentType;
+import com.storage.storageservice.model.PropertyType;
 import com.storage.storageservice.repository.DynamicDocumentRepository;
-import com.storage.storageservice.repository.PropertyTypeRepository;
+import com.storage.storageservice.service.DocumentSchemaCacheService;
+import com.storage.storageservice.service.DocumentTypeService;
+import com.storage.storageservice.service.DynamicDocumentBatchService;
 import com.storage.storageservice.service.DynamicDocumentService;
+import com.storage.storageservice.utils.KeysetCursor;
+import com.storage.storageservice.utils.TimeOrderedUuidGenerator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.lang.module.FindException;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DynamicDocumentServiceImpl implements DynamicDocumentService {
 
     private final DynamicDocumentRepository dynamicDocumentRepository;
-    private final PropertyTypeRepository propertyTypeRepository;
+    private final DocumentSchemaCacheService documentSchemaCacheService;
+    private final DocumentTypeService documentTypeService;
+    private final DynamicDocumentBatchService dynamicDocumentBatchService;
+    private final DynamicDocumentDao dynamicDocumentDao;
+
+    @Value("${document.bulk.batch-size:1000}")
+    private int bulkBatchSize;
+
+    @Value("${document.bulk.max-documents:10000}")
+    private int maxBulkDocuments;
+
+    @Value("${document.query.default-page-size:100}")
+    private int defaultQueryPageSize;
+
+    @Value("${document.query.max-page-size:1000}")
+    private int maxQueryPageSize;
+
+    @Value("${document.query.max-predicates:16}")
+    private int maxQueryPredicates;
+
+    @Value("${document.query.max-in-values:1000}")
+    private int maxInValues;
 
     @Override
     @Transactional
@@ -32,24 +73,282 @@ public class DynamicDocumentServiceImpl implements DynamicDocumentService {
         dynamicDocumentRepository.save(dynamicDocument);
     }
 
-    private void fillDynamicFields (DynamicDocumentDto dto, DynamicDocument target) {
-        dto.getDynamicFields()
-              .stream().collect(Collectors.groupingBy(DynamicFieldDto::getContentType))
-              .forEach((key, value) -> {
-                  if (key.equalsIgnoreCase("string")) {
-                      List<DynamicFieldInfoStr> resultList = value.stream()
-                              .map(list -> {
-                                  DynamicFieldInfoStr str = new DynamicFieldInfoStr();
-                                  str.setDynamicDocument(target);
-                                  str.setPropertyType(propertyTypeRepository
-                                          .findByPropertyNameAndDocumentTypeId(list.getPropertyName(), dto.getDocumentTypeId())
-                                          .orElseThrow());
-                                  str.setPropertyValue((String) list.getValue());
-                                  return str;
-                              })
-                              .toList();
-                      target.getStringDynamicFields().addAll(resultList);
-                  }
-              });
+    @Override
+    public DynamicDocumentBulkReportDto addDocuments(DynamicDocumentBulkRequest request) {
+        long started = System.nanoTime();
+        UUID documentTypeId = request.getDocumentTypeId();
+        List<DynamicDocumentDto> documents = request.getDocuments() == null ? List.of() : request.getDocuments();
+        if (documentTypeId == null) {
+            throw new IllegalArgumentException("documentTypeId is required");
+        }
+        if (documents.size() > maxBulkDocuments) {
+            throw new IllegalArgumentException("Bulk request holds %d documents, at most %d are allowed"
+                    .formatted(documents.size(), maxBulkDocuments));
+        }
+        documentTypeService.getDocumentTypeById(documentTypeId);
+        Map<String, PropertyType> propertyTypes = propertyTypes(documentTypeId, documents);
+
+        DynamicDocumentBulkReportDto report = new DynamicDocumentBulkReportDto();
+        report.setReceived(documents.size());
+        List<DynamicDocument> batch = new ArrayList<>(Math.min(bulkBatchSize, documents.size()));
+        List<Integer> indexes = new ArrayList<>(Math.min(bulkBatchSize, documents.size()));
+        for (int i = 0; i < documents.size(); i++) {
+            try {
+                batch.add(toNewEntity(documents.get(i), propertyTypes));
+                indexes.add(i);
+            } catch (IllegalArgumentException e) {
+                fail(report, i, e.getMessage());
+            }
+            if (batch.size() == bulkBatchSize) {
+                writeBatch(batch, indexes, report);
+                batch.clear();
+                indexes.clear();
+            }
+        }
+        writeBatch(batch, indexes, report);
+
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Dynamic document bulk: {} received, {} imported, {} failed in {} ms",
+                report.getReceived(), report.getImported(), report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    @Override
+    public DynamicDocumentPageDto query(DynamicDocumentQueryRequest request) {
+        List<DynamicDocumentQueryRequest.Predicate> predicates = request.getPredicates() == null
+                ? List.of() : request.getPredicates();
+        if (request.getDocumentTypeId() == null) {
+            throw new IllegalArgumentException("documentTypeId is required");
+        }
+        if (predicates.isEmpty() || predicates.size() > maxQueryPredicates) {
+            throw new IllegalArgumentException("Query needs 1 to %d predicates".formatted(maxQueryPredicates));
+        }
+        if (predicates.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Predicate is null");
+        }
+        if (predicates.stream().anyMatch(predicate -> predicate.getPropertyName() == null)) {
+            throw new IllegalArgumentException("Predicate propertyName is required");
+        }
+        Map<String, UUID> schema = documentSchemaCacheService.schema(request.getDocumentTypeId(), predicates.stream()
+                .map(DynamicDocumentQueryRequest.Predicate::getPropertyName)
+                .toList());
+        List<FieldCondition> conditions = predicates.stream()
+                .map(predicate -> toCondition(predicate, schema))
+                .toList();
+        int pageSize = request.getLimit() == null ? defaultQueryPageSize : Math.clamp(request.getLimit(), 1, maxQueryPageSize);
+
+        // Лишняя строка показывает, есть ли следующая страница
+        List<DynamicDocumentPageDto.Item> rows = dynamicDocumentDao.findPage(conditions,
+                KeysetCursor.decode(request.getCursor()), pageSize + 1);
+        return toPage(rows, pageSize);
+    }
+
+    @Override
+    public DynamicDocumentPageDto.Item getDocument(UUID id) {
+        DynamicDocumentPageDto.Item item = dynamicDocumentDao.findById(id)
+                .orElseThrow(() -> new FindException("DynamicDocument by id %s not found".formatted(id)));
+        fillMissingFields(List.of(item));
+        return item;
+    }
+
+    @Override
+    public DynamicDocumentPageDto getPage(String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultQueryPageSize : Math.clamp(limit, 1, maxQueryPageSize);
+        return toPage(dynamicDocumentDao.findPage(KeysetCursor.decode(cursor), pageSize + 1), pageSize);
+    }
+
+    private DynamicDocumentPageDto toPage(List<DynamicDocumentPageDto.Item> rows, int pageSize) {
+        List<DynamicDocumentPageDto.Item> items = rows.stream()
+                .limit(pageSize)
+                .toList();
+        fillMissingFields(items);
+        String nextCursor = rows.size() > pageSize ? KeysetCursor.encode(items.getLast().getId()) : null;
+        return new DynamicDocumentPageDto(items, nextCursor);
+    }
+
+    /**
+     * Documents written before the snapshot column existed have no snapshot; their fields are pivoted
+     * from the field tables instead.
+     */
+    private void fillMissingFields(List<DynamicDocumentPageDto.Item> items) {
+        List<UUID> missing = items.stream()
+                .filter(item -> item.getFields() == null)
+                .map(DynamicDocumentPageDto.Item::getId)
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<UUID, Map<String, Object>> fields = dynamicDocumentDao.findFields(missing);
+        items.stream()
+                .filter(item -> item.getFields() == null)
+                .forEach(item -> item.setFields(fields.getOrDefault(item.getId(), Map.of())));
+    }
+
+    private void fillDynamicFields(DynamicDocumentDto dto, DynamicDocument target) {
+        for (DynamicFieldDto field : fields(dto)) {
+            target.addDynamicField(field.getPropertyName(), toNewField(field,
+                    documentSchemaCacheService.resolve(dto.getDocumentTypeId(), field.getPropertyName())));
+        }
+    }
+
+    /**
+     * Property types of every name used in the request, resolved once. COPY only needs their ids,
+     * so they are bare instances rather than managed entities.
+     */
+    private Map<String, PropertyType> propertyTypes(UUID documentTypeId, List<DynamicDocumentDto> documents) {
+        Set<String> names = documents.stream()
+                .filter(Objects::nonNull)
+                .flatMap(document -> fields(document).stream())
+                .filter(Objects::nonNull)
+                .map(DynamicFieldDto::getPropertyName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, PropertyType> propertyTypes = new HashMap<>();
+        documentSchemaCacheService.schema(documentTypeId, names).forEach((name, id) -> {
+            PropertyType propertyType = new PropertyType();
+            propertyType.setId(id);
+            propertyTypes.put(name, propertyType);
+        });
+        return propertyTypes;
+    }
+
+    private static DynamicDocument toNewEntity(DynamicDocumentDto dto, Map<String, PropertyType> propertyTypes) {
+        if (dto == null || dto.getName() == null || dto.getSurname() == null) {
+            throw new IllegalArgumentException("name and surname are required");
+        }
+        DynamicDocument document = new DynamicDocument();
+        document.setId(TimeOrderedUuidGenerator.next());
+        document.setVersion(0L);
+        document.setName(dto.getName());
+        document.setSurname(dto.getSurname());
+        for (DynamicFieldDto field : fields(dto)) {
+            if (field == null) {
+                throw new IllegalArgumentException("Field is null");
+            }
+            PropertyType propertyType = propertyTypes.get(field.getPropertyName());
+            if (propertyType == null) {
+                throw new IllegalArgumentException("Unknown property %s".formatted(field.getPropertyName()));
+            }
+            DynamicFieldInfoCommon<?> typed = toNewField(field, propertyType);
+            typed.setId(TimeOrderedUuidGenerator.next());
+            typed.setVersion(0L);
+            document.addDynamicField(field.getPropertyName(), typed);
+        }
+        return document;
+    }
+
+    /**
+     * Routes the value to the field table of its content type.
+     *
+     * @throws IllegalArgumentException for an unknown content type or a value that does not fit it
+     */
+    private static DynamicFieldInfoCommon<?> toNewField(DynamicFieldDto dto, PropertyType propertyType) {
+        try {
+            DynamicFieldInfoCommon<?> field = FieldContentType.of(dto.getContentType()).newField(dto.getValue());
+            field.setPropertyType(propertyType);
+            return field;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Property %s: %s".formatted(dto.getPropertyName(), e.getMessage()), e);
+        }
+    }
+
+    private FieldCondition toCondition(DynamicDocumentQueryRequest.Predicate predicate, Map<String, UUID> schema) {
+        UUID propertyTypeId = schema.get(predicate.getPropertyName());
+        if (propertyTypeId == null) {
+            throw new IllegalArgumentException("Unknown property %s".formatted(predicate.getPropertyName()));
+        }
+        if (predicate.getOperator() == null) {
+            throw new IllegalArgumentException("Property %s: operator is required".formatted(predicate.getPropertyName()));
+        }
+        try {
+            FieldContentType contentType = predicate.getContentType() == null
+                    ? FieldContentType.STRING : FieldContentType.of(predicate.getContentType());
+            List<Object> values = switch (predicate.getOperator()) {
+                case EQ -> List.of(required(contentType, predicate.getValue()));
+                case IN -> {
+                    if (predicate.getValues() == null || predicate.getValues().isEmpty()
+                            || predicate.getValues().size() > maxInValues) {
+                        throw new IllegalArgumentException("IN needs 1 to %d values".formatted(maxInValues));
+                    }
+                    yield predicate.getValues().stream()
+                            .map(value -> required(contentType, value))
+                            .toList();
+                }
+                case RANGE -> {
+                    if (predicate.getFrom() == null && predicate.getTo() == null) {
+                        throw new IllegalArgumentException("RANGE needs from or to");
+                    }
+                    yield Arrays.asList(contentType.convert(predicate.getFrom()), contentType.convert(predicate.getTo()));
+                }
+                case PREFIX -> {
+                    if (contentType != FieldContentType.STRING) {
+                        throw new IllegalArgumentException("PREFIX applies to string fields only");
+                    }
+                    yield List.of(required(contentType, predicate.getValue()));
+                }
+            };
+            return new FieldCondition(propertyTypeId, contentType, predicate.getOperator(), values);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Property %s: %s".formatted(predicate.getPropertyName(), e.getMessage()), e);
+        }
+    }
+
+    private static Object required(FieldContentType contentType, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value is required");
+        }
+        return contentType.convert(value);
+    }
+
+    private static List<DynamicFieldDto> fields(DynamicDocumentDto dto) {
+        return dto.getDynamicFields() == null ? List.of() : dto.getDynamicFields();
+    }
+
+    private void writeBatch(List<DynamicDocument> batch, List<Integer> indexes, DynamicDocumentBulkReportDto report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            report.setFieldRows(report.getFieldRows() + dynamicDocumentBatchService.copyBatch(batch));
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            // Отказ пула, таймаут или обрыв соединения не зависит от документов: делить батч бессмысленно
+            if (!isDataError(e)) {
+                throw e;
+            }
+            if (batch.size() == 1) {
+                fail(report, indexes.getFirst(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            // Один плохой документ откатывает весь COPY: делим пополам, пока плохие документы не останутся поодиночке.
+            // Один плохой документ стоит около 2 * log2(n) лишних COPY вместо n
+            log.warn("Dynamic document batch of {} failed, splitting in halves: {}", batch.size(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            int half = batch.size() / 2;
+            writeBatch(batch.subList(0, half), indexes.subList(0, half), report);
+            writeBatch(batch.subList(half, batch.size()), indexes.subList(half, indexes.size()), report);
+        }
+    }
+
+    /**
+     * Errors caused by the data of some document in the batch: constraint violations and invalid values,
+     * SQLState classes 23 and 22.
+     */
+    private static boolean isDataError(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && (sqlException.getSQLState().startsWith("22") || sqlException.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void fail(DynamicDocumentBulkReportDto report, int index, String error) {
+        report.setFailed(report.getFailed() + 1);
+        report.getFailedDocuments().add(new DynamicDocumentBulkReportDto.FailedDocument(index, error));
     }
 }
@@ -0,0 +1,126 @@
+package com.storage.storageservice.service.impl;
+
+import com.storage.storageservice.config.PromotedPayloadProperties;
+import com.storage.storageservice.dao.PayloadIndexDao;
+import com.storage.storageservice.dto.PayloadIndexAdviceDto;
+import com.storage.storageservice.dto.PayloadIndexAdviceDto.Operator;
+import com.storage.storageservice.service.PayloadIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Every payload lookup is a containment query, and one GIN {@code jsonb_path_ops} index on the payload
+ * serves every key combination, so the lookups are counted together and the keys only go into the advice.
+ * Promoted keys already have an indexed column and are left out; a lookup made of promoted keys only
+ * is not counted at all.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayloadIndexServiceImpl implements PayloadIndexService {
+
+    static final String GIN_INDEX_NAME = "artifact_payload_path_ops_idx";
+
+    private static final String GIN_DDL = "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + GIN_INDEX_NAME
+            + " ON artifact USING gin (payload jsonb_path_ops)";
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    private final PayloadIndexDao payloadIndexDao;
+    private final PromotedPayloadProperties promotedPayloadProperties;
+    private final QueryStats containment = new QueryStats();
+    private final Set<String> containmentKeys = ConcurrentHashMap.newKeySet();
+
+    @Value("${artifact.index-advisor.min-calls:50}")
+    private long minCalls;
+
+    @Value("${artifact.index-advisor.min-avg-millis:1}")
+    private double minAvgMillis;
+
+    @Override
+    public void record(Collection<String> keys, long elapsedNanos) {
+        List<String> unpromoted = keys.stream()
+                .filter(key -> !promotedPayloadProperties.isPromoted(key))
+                .toList();
+        if (unpromoted.isEmpty()) {
+            return;
+        }
+        containment.add(elapsedNanos);
+        // Ключи приходят от клиентов, поэтому их число ограничено
+        if (containmentKeys.size() < MAX_TRACKED_KEYS) {
+            containmentKeys.addAll(unpromoted);
+        }
+    }
+
+    @Override
+    public List<PayloadIndexAdviceDto> getAdvice() {
+        if (containment.calls.sum() < minCalls || containment.avgMillis() < minAvgMillis) {
+            return List.of();
+        }
+        Map<String, String> existing = payloadIndexDao.findArtifactIndexes();
+        return List.of(PayloadIndexAdviceDto.builder()
+                .indexName(GIN_INDEX_NAME)
+                .operator(Operator.CONTAINMENT)
+                .keys(containmentKeys.stream().sorted().toList())
+                .calls(containment.calls.sum())
+                .avgMillis(containment.avgMillis())
+                .maxMillis(containment.maxNanos.get() / 1_000_000.0)
+                .ddl(GIN_DDL)
+                .exists(existing.containsKey(GIN_INDEX_NAME) || existing.values().stream()
+                        .anyMatch(def -> def.contains("gin (payload jsonb_path_ops)")))
+                .build());
+    }
+
+    /**
+     * Не транзакционный: CREATE INDEX CONCURRENTLY нельзя выполнять внутри транзакции.
+     */
+    @Override
+    public Map<String, String> apply(Collection<String> indexNames) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (PayloadIndexAdviceDto advice : getAdvice()) {
+            if (advice.isExists() || !(indexNames.isEmpty() || indexNames.contains(advice.getIndexName()))) {
+                continue;
+            }
+            long started = System.nanoTime();
+            try {
+                payloadIndexDao.createConcurrently(advice.getIndexName(), advice.getDdl());
+                result.put(advice.getIndexName(), "created");
+                log.info("Created payload index {} in {} ms", advice.getIndexName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            } catch (RuntimeException e) {
+                log.warn("Failed to create payload index {}", advice.getIndexName(), e);
+                result.put(advice.getIndexName(), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private static final class QueryStats {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        void add(long elapsedNanos) {
+            calls.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        double avgMillis() {
+            long count = calls.sum();
+            return count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count;
+        }
+    }
+}
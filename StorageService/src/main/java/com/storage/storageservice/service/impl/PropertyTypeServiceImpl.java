@@ -4,6 +4,7 @@ import com.storage.storageservice.dto.DocumentTypeDto;
 import com.storage.storageservice.dto.PropertyTypeDto;
 import com.storage.storageservice.model.PropertyType;
 import com.storage.storageservice.repository.PropertyTypeRepository;
+import com.storage.storageservice.service.DocumentSchemaCacheService;
 import com.storage.storageservice.service.DocumentTypeService;
 import com.storage.storageservice.service.PropertyTypeService;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ public class PropertyTypeServiceImpl implements PropertyTypeService {
 
     private final PropertyTypeRepository propertyTypeRepository;
     private final DocumentTypeService documentTypeService;
+    private final DocumentSchemaCacheService documentSchemaCacheService;
 
     @Override
     @Transactional
@@ -26,6 +28,7 @@ public class PropertyTypeServiceImpl implements PropertyTypeService {
         propertyType.setPropertyName(dto.getPropertyName());
         propertyType.setDocumentType(documentTypeService.getDocumentTypeById(dto.getDocumentTypeId()));
         propertyTypeRepository.save(propertyType);
+        documentSchemaCacheService.invalidate(dto.getDocumentTypeId());
     }
 
     @Override
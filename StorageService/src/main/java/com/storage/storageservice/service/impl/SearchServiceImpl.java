@@ -0,0 +1,54 @@
+package com.storage.storageservice.service.impl;
+
+import com.storage.storageservice.dao.SearchDao;
+import com.storage.storageservice.dto.SearchHitDto;
+import com.storage.storageservice.dto.SearchPageDto;
+import com.storage.storageservice.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final SearchDao searchDao;
+
+    @Value("${search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${search.max-offset:1000}")
+    private int maxOffset;
+
+    @Value("${search.max-query-length:100}")
+    private int maxQueryLength;
+
+    @Override
+    public SearchPageDto search(String query, SearchPageDto.Mode mode, SearchPageDto.Scope scope, Integer limit, int offset) {
+        String text = query == null ? "" : query.strip();
+        if (text.isEmpty() || text.length() > maxQueryLength) {
+            throw new IllegalArgumentException("Search query must have 1 to %d characters".formatted(maxQueryLength));
+        }
+        // Из одного-двух символов не получается триграмм, и GIN-индекс читался бы целиком
+        if (mode != SearchPageDto.Mode.PREFIX && text.length() < SearchDao.MIN_TRIGRAM_QUERY_LENGTH) {
+            throw new IllegalArgumentException("%s search needs at least %d characters"
+                    .formatted(mode, SearchDao.MIN_TRIGRAM_QUERY_LENGTH));
+        }
+        // Глубокие страницы по рангу всё равно дочитывают всё до offset, поэтому ограничены
+        if (offset < 0 || offset > maxOffset) {
+            throw new IllegalArgumentException("Offset must be within [0, %d]".formatted(maxOffset));
+        }
+        int pageSize = limit == null ? defaultLimit : Math.clamp(limit, 1, maxLimit);
+        // Лишняя строка показывает, есть ли следующая страница
+        List<SearchHitDto> hits = searchDao.search(text, mode, scope, pageSize + 1, offset);
+        if (hits.size() > pageSize) {
+            return new SearchPageDto(hits.subList(0, pageSize), offset + pageSize);
+        }
+        return new SearchPageDto(hits, null);
+    }
+}
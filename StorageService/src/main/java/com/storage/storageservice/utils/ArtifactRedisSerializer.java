@@ -0,0 +1,360 @@
+package com.storage.storageservice.utils;
+
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.EmployeeDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Redis value serializer that writes {@link ArtifactDto} in a compact binary form and everything else
+ * (and artifacts too, while binary writes are switched off) with the fallback serializer.
+ * <p>
+ * Binary entries start with a header: {@link #MAGIC}, {@link #FORMAT_VERSION} and a flags byte.
+ * The magic byte can not start a JSON document, so reads recognise both formats and a cluster can be
+ * switched over in two steps: deploy with binary writes off, then turn them on once every node reads binary.
+ * Entries of an unknown format version read as a cache miss, so they are simply reloaded and overwritten.
+ * <p>
+ * Bodies of at least {@code compressThreshold} bytes are Deflate-compressed when that makes them smaller.
+ */
+public class ArtifactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xA7;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int FLAG_DEFLATED = 1;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_SURNAME = 1 << 2;
+    private static final int HAS_PAYLOAD = 1 << 3;
+    private static final int HAS_CHILDREN = 1 << 4;
+    private static final int HAS_EMPLOYEE = 1 << 5;
+
+    private static final byte T_NULL = 0;
+    private static final byte T_TRUE = 1;
+    private static final byte T_FALSE = 2;
+    private static final byte T_INT = 3;
+    private static final byte T_LONG = 4;
+    private static final byte T_DOUBLE = 5;
+    private static final byte T_STRING = 6;
+    private static final byte T_LIST = 7;
+    private static final byte T_MAP = 8;
+    private static final byte T_BIG_INTEGER = 9;
+    private static final byte T_BIG_DECIMAL = 10;
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean writeBinary;
+    private final int compressThreshold;
+
+    public ArtifactRedisSerializer(RedisSerializer<Object> fallback, boolean writeBinary, int compressThreshold) {
+        this.fallback = fallback;
+        this.writeBinary = writeBinary;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!writeBinary || !(value instanceof ArtifactDto dto)) {
+            return fallback.serialize(value);
+        }
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+            writeArtifact(new DataOutputStream(body), dto);
+            byte[] raw = body.toByteArray();
+            if (raw.length >= compressThreshold) {
+                byte[] deflated = deflate(raw);
+                if (deflated.length < raw.length) {
+                    return withHeader(deflated, FLAG_DEFLATED);
+                }
+            }
+            return withHeader(raw, 0);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write artifact " + dto.getId(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION) {
+            return null;
+        }
+        try {
+            InputStream body = new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            if ((bytes[2] & FLAG_DEFLATED) != 0) {
+                body = new ByteArrayInputStream(inflate(body));
+            }
+            return readArtifact(new DataInputStream(body));
+        } catch (IOException e) {
+            throw new SerializationException("Could not read binary artifact entry", e);
+        }
+    }
+
+    private static byte[] withHeader(byte[] body, int flags) {
+        byte[] result = new byte[HEADER_LENGTH + body.length];
+        result[0] = MAGIC;
+        result[1] = FORMAT_VERSION;
+        result[2] = (byte) flags;
+        System.arraycopy(body, 0, result, HEADER_LENGTH, body.length);
+        return result;
+    }
+
+    private static byte[] deflate(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflating = new DeflaterOutputStream(out, deflater)) {
+            deflating.write(raw);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(InputStream deflated) throws IOException {
+        try (InflaterInputStream inflating = new InflaterInputStream(deflated)) {
+            return inflating.readAllBytes();
+        }
+    }
+
+    private static void writeArtifact(DataOutput out, ArtifactDto dto) throws IOException {
+        int mask = (dto.getId() != null ? HAS_ID : 0)
+                | (dto.getName() != null ? HAS_NAME : 0)
+                | (dto.getSurname() != null ? HAS_SURNAME : 0)
+                | (dto.getPayload() != null ? HAS_PAYLOAD : 0)
+                | (dto.getChildren() != null ? HAS_CHILDREN : 0)
+                | (dto.getEmployee() != null ? HAS_EMPLOYEE : 0);
+        out.writeByte(mask);
+        if (dto.getId() != null) {
+            out.writeLong(dto.getId().getMostSignificantBits());
+            out.writeLong(dto.getId().getLeastSignificantBits());
+        }
+        if (dto.getName() != null) {
+            writeString(out, dto.getName());
+        }
+        if (dto.getSurname() != null) {
+            writeString(out, dto.getSurname());
+        }
+        if (dto.getPayload() != null) {
+            writeMap(out, dto.getPayload());
+        }
+        if (dto.getChildren() != null) {
+            writeVarLong(out, dto.getChildren().size());
+            for (ArtifactDto child : dto.getChildren()) {
+                writeArtifact(out, child);
+            }
+        }
+        if (dto.getEmployee() != null) {
+            EmployeeDto employee = dto.getEmployee();
+            out.writeByte((employee.getName() != null ? 1 : 0) | (employee.getSurname() != null ? 2 : 0));
+            if (employee.getName() != null) {
+                writeString(out, employee.getName());
+            }
+            if (employee.getSurname() != null) {
+                writeString(out, employee.getSurname());
+            }
+        }
+    }
+
+    private static ArtifactDto readArtifact(DataInput in) throws IOException {
+        int mask = in.readUnsignedByte();
+        ArtifactDto dto = new ArtifactDto();
+        if ((mask & HAS_ID) != 0) {
+            dto.setId(new UUID(in.readLong(), in.readLong()));
+        }
+        if ((mask & HAS_NAME) != 0) {
+            dto.setName(readString(in));
+        }
+        if ((mask & HAS_SURNAME) != 0) {
+            dto.setSurname(readString(in));
+        }
+        if ((mask & HAS_PAYLOAD) != 0) {
+            dto.setPayload(readMap(in));
+        }
+        if ((mask & HAS_CHILDREN) != 0) {
+            int size = readLength(in);
+            List<ArtifactDto> children = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                children.add(readArtifact(in));
+            }
+            dto.setChildren(children);
+        }
+        if ((mask & HAS_EMPLOYEE) != 0) {
+            int employeeMask = in.readUnsignedByte();
+            EmployeeDto employee = new EmployeeDto();
+            if ((employeeMask & 1) != 0) {
+                employee.setName(readString(in));
+            }
+            if ((employeeMask & 2) != 0) {
+                employee.setSurname(readString(in));
+            }
+            dto.setEmployee(employee);
+        }
+        return dto;
+    }
+
+    private static void writeMap(DataOutput out, Map<?, ?> map) throws IOException {
+        writeVarLong(out, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(out, String.valueOf(entry.getKey()));
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> readMap(DataInput in) throws IOException {
+        int size = readLength(in);
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(4, size * 4 / 3 + 1));
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readValue(in));
+        }
+        return map;
+    }
+
+    /**
+     * Payload values are what Jackson produces for untyped JSON, numbers keep their Java type.
+     */
+    private static void writeValue(DataOutput out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(T_NULL);
+            case Boolean b -> out.writeByte(b ? T_TRUE : T_FALSE);
+            case Integer i -> {
+                out.writeByte(T_INT);
+                writeVarLong(out, zigZag(i));
+            }
+            case Long l -> {
+                out.writeByte(T_LONG);
+                writeVarLong(out, zigZag(l));
+            }
+            case Double d -> {
+                out.writeByte(T_DOUBLE);
+                out.writeDouble(d);
+            }
+            case Float f -> {
+                out.writeByte(T_DOUBLE);
+                out.writeDouble(f);
+            }
+            case String s -> {
+                out.writeByte(T_STRING);
+                writeString(out, s);
+            }
+            case BigInteger bi -> {
+                out.writeByte(T_BIG_INTEGER);
+                writeString(out, bi.toString());
+            }
+            case BigDecimal bd -> {
+                out.writeByte(T_BIG_DECIMAL);
+                writeString(out, bd.toString());
+            }
+            case List<?> list -> {
+                out.writeByte(T_LIST);
+                writeVarLong(out, list.size());
+                for (Object item : list) {
+                    writeValue(out, item);
+                }
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(T_MAP);
+                writeMap(out, map);
+            }
+            default -> throw new SerializationException("Unsupported payload value type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInput in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case T_NULL -> null;
+            case T_TRUE -> Boolean.TRUE;
+            case T_FALSE -> Boolean.FALSE;
+            case T_INT -> (int) unZigZag(readVarLong(in));
+            case T_LONG -> unZigZag(readVarLong(in));
+            case T_DOUBLE -> in.readDouble();
+            case T_STRING -> readString(in);
+            case T_BIG_INTEGER -> new BigInteger(readString(in));
+            case T_BIG_DECIMAL -> new BigDecimal(readString(in));
+            case T_LIST -> {
+                int size = readLength(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                yield list;
+            }
+            case T_MAP -> readMap(in);
+            default -> throw new SerializationException("Unknown payload value tag " + type);
+        };
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed variable-length number");
+    }
+
+    private static int readLength(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new SerializationException("Malformed length " + length);
+        }
+        return (int) length;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.storage.storageservice.utils;
+
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.model.Artifact;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for artifact trees handled past Hibernate (COPY, JDBC batches, recursive reads).
+ * Ids are assigned up front, so every child knows its parent id before anything is sent to the database.
+ */
+public final class ArtifactTreeUtils {
+
+    private ArtifactTreeUtils() {
+    }
+
+    /**
+     * Builds a new entity tree from the DTO tree, with {@link TimeOrderedUuidGenerator} ids and version 0.
+     */
+    public static Artifact toNewEntityTree(ArtifactDto dto) {
+        Artifact artifact = Artifact.builder()
+                .id(TimeOrderedUuidGenerator.next())
+                .version(0L)
+                .name(dto.getName())
+                .surname(dto.getSurname())
+                .payload(dto.getPayload())
+                .build();
+        if (dto.getChildren() != null) {
+            dto.getChildren().forEach(child -> artifact.addChild(toNewEntityTree(child)));
+        }
+        return artifact;
+    }
+
+    /**
+     * Flattens the tree in pre-order: a parent always comes before its children.
+     */
+    public static List<Artifact> preOrder(Artifact root) {
+        List<Artifact> rows = new ArrayList<>();
+        collect(root, rows);
+        return rows;
+    }
+
+    /**
+     * Splits the trees into levels: roots first, then their children, and so on.
+     */
+    public static List<List<Artifact>> levels(List<Artifact> roots) {
+        List<List<Artifact>> levels = new ArrayList<>();
+        List<Artifact> level = roots;
+        while (!level.isEmpty()) {
+            levels.add(level);
+            level = level.stream()
+                    .flatMap(artifact -> artifact.getChildren().stream())
+                    .toList();
+        }
+        return levels;
+    }
+
+    /**
+     * Copies the DTO tree down to {@code depth} levels below the root; deeper children are left out.
+     * The source is not modified, so it may be a shared cached instance.
+     */
+    public static ArtifactDto prune(ArtifactDto dto, int depth) {
+        List<ArtifactDto> children = dto.getChildren() == null ? null : depth == 0
+                ? new ArrayList<>()
+                : dto.getChildren().stream()
+                        .map(child -> prune(child, depth - 1))
+                        .toList();
+        return new ArtifactDto(dto.getId(), dto.getName(), dto.getSurname(), dto.getPayload(), children,
+                dto.getEmployee());
+    }
+
+    private static void collect(Artifact artifact, List<Artifact> rows) {
+        rows.add(artifact);
+        artifact.getChildren().forEach(child -> collect(child, rows));
+    }
+}
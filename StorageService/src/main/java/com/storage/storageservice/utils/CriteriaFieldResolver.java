@@ -2,7 +2,17 @@ package com.storage.storageservice.utils;
 
 import jakarta.persistence.criteria.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 public class CriteriaFieldResolver {
+
+    /**
+     * Resolves {@code a.b.c} to a selection aliased with the full path. Segments after a jsonb (Map)
+     * attribute are keys inside the document: {@code payload.meta.tags} selects
+     * {@code jsonb_extract_path(payload, 'meta', 'tags')} as JSON text, so only that fragment is fetched.
+     */
     public static Selection<?> resolveSelection(
             From<?, ?> from,
             String fieldPath,
@@ -13,12 +23,25 @@ public class CriteriaFieldResolver {
 
         // Обрабатываем вложенные свойства
         for (int i = 0; i < parts.length - 1; i++) {
+            Path<?> attribute = currentFrom.get(parts[i]);
+            if (Map.class.isAssignableFrom(attribute.getJavaType())) {
+                return jsonPath(attribute, parts, i + 1, cb).alias(fieldPath);
+            }
             currentFrom = getOrCreateJoin(currentFrom, parts[i]);
         }
 
         return currentFrom.get(parts[parts.length - 1]).alias(fieldPath);
     }
 
+    private static Expression<String> jsonPath(Path<?> document, String[] parts, int firstKey, CriteriaBuilder cb) {
+        List<Expression<?>> arguments = new ArrayList<>();
+        arguments.add(document);
+        for (int i = firstKey; i < parts.length; i++) {
+            arguments.add(cb.literal(parts[i]));
+        }
+        return cb.function("jsonb_extract_path", String.class, arguments.toArray(Expression[]::new));
+    }
+
     private static Join<?, ?> getOrCreateJoin(From<?, ?> from, String attribute) {
         // Проверяем существующие JOIN'ы
         for (Join<?, ?> join : from.getJoins()) {
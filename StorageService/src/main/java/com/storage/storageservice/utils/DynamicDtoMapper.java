@@ -7,4 +7,15 @@ import java.util.Set;
 public interface DynamicDtoMapper {
 
     <T> T mapToDto(Tuple tuple, Set<String> fields, Class<T> dtoClass);
+
+    /**
+     * Resolves the mapping of a field set once for all rows of one query. The rows must share the columns
+     * of the first row mapped, as rows of a single query do.
+     */
+    <T> TupleMapper<T> mapperFor(Set<String> fields, Class<T> dtoClass);
+
+    interface TupleMapper<T> {
+
+        T map(Tuple tuple);
+    }
 }
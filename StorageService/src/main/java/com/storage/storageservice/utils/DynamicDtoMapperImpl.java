@@ -1,65 +1,128 @@
 package com.storage.storageservice.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Maps projection tuples to DTOs through a plan of pre-resolved method handles, built once per DTO class
+ * and field set. A query resolves the plan once through {@link #mapperFor} and maps its rows with it.
+ * <p>
+ * A path that continues past a {@code Map} field, e.g. {@code payload.meta.tags}, is a key path inside
+ * a json document: its tuple value is the JSON text of that fragment, which is parsed and put into
+ * nested maps under the same keys.
+ */
 @Service
+@RequiredArgsConstructor
 public class DynamicDtoMapperImpl implements DynamicDtoMapper {
     private static final Map<Class<?>, Map<String, Field>> FIELD_CACHE = new ConcurrentHashMap<>();
+    private static final long MAX_PLANS = 1024;
 
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<PlanKey, MappingPlan> plans = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PLANS)
+            .build();
+
+    @Override
     public <T> T mapToDto(Tuple tuple, Set<String> fields, Class<T> dtoClass) {
-        try {
-            T dto = dtoClass.getDeclaredConstructor().newInstance();
-            Map<String, Field> dtoFields = getCachedFields(dtoClass);
+        return mapperFor(fields, dtoClass).map(tuple);
+    }
+
+    @Override
+    public <T> TupleMapper<T> mapperFor(Set<String> fields, Class<T> dtoClass) {
+        return new PlanMapper<>(planFor(dtoClass, fields), dtoClass);
+    }
 
+    private MappingPlan planFor(Class<?> dtoClass, Set<String> fields) {
+        PlanKey key = new PlanKey(dtoClass, Set.copyOf(fields));
+        MappingPlan plan = plans.getIfPresent(key);
+        if (plan == null) {
+            plan = buildPlan(dtoClass, key.fields());
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    private MappingPlan buildPlan(Class<?> dtoClass, Set<String> fields) {
+        try {
+            List<FieldStep> steps = new ArrayList<>(fields.size());
             for (String fieldPath : fields) {
-                try {
-                    Object value = tuple.get(fieldPath);
-                    if (value != null) {
-                        setNestedField(dto, fieldPath, value, dtoFields);
-                    }
-                } catch (IllegalArgumentException ignored) {
-                    // Поле не найдено в Tuple
+                FieldStep step = buildStep(fieldPath, dtoClass);
+                // Путь, которого нет в DTO, пропускаем один раз при построении плана
+                if (step != null) {
+                    steps.add(step);
                 }
             }
-            return dto;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to map to DTO", e);
+            return new MappingPlan(constructor(dtoClass), List.copyOf(steps));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot build mapping plan for " + dtoClass.getName(), e);
         }
     }
 
-    private <T> void setNestedField(T dto, String fieldPath, Object value,
-                                    Map<String, Field> dtoFields) throws Exception {
+    private FieldStep buildStep(String fieldPath, Class<?> dtoClass) throws ReflectiveOperationException {
         String[] parts = fieldPath.split("\\.");
-        Object current = dto;
-        Map<String, Field> currentFields = dtoFields;
+        List<MethodHandle> getters = new ArrayList<>();
+        List<MethodHandle> setters = new ArrayList<>();
+        List<MethodHandle> constructors = new ArrayList<>();
+        Class<?> currentClass = dtoClass;
 
         for (int i = 0; i < parts.length - 1; i++) {
-            Field field = currentFields.get(parts[i]);
-            if (field == null) return;
-
-            field.setAccessible(true);
-            Object nested = field.get(current);
+            Field field = getCachedFields(currentClass).get(parts[i]);
+            if (field == null) return null;
 
-            if (nested == null) {
-                nested = field.getType().getDeclaredConstructor().newInstance();
-                field.set(current, nested);
+            MethodHandles.Lookup lookup = lookupFor(field);
+            MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            MethodHandle setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            if (Map.class.isAssignableFrom(field.getType())) {
+                String[] keys = Arrays.copyOfRange(parts, i + 1, parts.length);
+                return new FieldStep(fieldPath, getters.toArray(MethodHandle[]::new), setters.toArray(MethodHandle[]::new),
+                        constructors.toArray(MethodHandle[]::new), new JsonLeaf(getter, setter, keys, objectMapper));
             }
-            current = nested;
-            currentFields = getCachedFields(field.getType());
+            getters.add(getter);
+            setters.add(setter);
+            constructors.add(constructor(field.getType()));
+            currentClass = field.getType();
         }
 
-        Field targetField = currentFields.get(parts[parts.length - 1]);
-        if (targetField != null) {
-            targetField.setAccessible(true);
-            targetField.set(current, convertValue(value, targetField.getType()));
-        }
+        Field targetField = getCachedFields(currentClass).get(parts[parts.length - 1]);
+        if (targetField == null) return null;
+
+        MethodHandle setter = lookupFor(targetField).unreflectSetter(targetField).asType(SETTER_TYPE);
+        return new FieldStep(fieldPath, getters.toArray(MethodHandle[]::new), setters.toArray(MethodHandle[]::new),
+                constructors.toArray(MethodHandle[]::new), new FieldLeaf(setter, targetField.getType()));
+    }
+
+    private static MethodHandle constructor(Class<?> type) throws ReflectiveOperationException {
+        return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                .findConstructor(type, MethodType.methodType(void.class))
+                .asType(CONSTRUCTOR_TYPE);
+    }
+
+    private static MethodHandles.Lookup lookupFor(Field field) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
     }
 
     private static Object convertValue(Object value, Class<?> targetType) {
@@ -88,4 +151,123 @@ public class DynamicDtoMapperImpl implements DynamicDtoMapper {
             return fields;
         });
     }
-}
\ No newline at end of file
+
+    private record PlanKey(Class<?> dtoClass, Set<String> fields) {
+    }
+
+    private record MappingPlan(MethodHandle constructor, List<FieldStep> steps) {
+    }
+
+    /**
+     * Binds the steps of a plan to tuple positions on the first row: steps whose alias the query did not
+     * select are dropped there, so every row afterwards is read by index without alias lookups.
+     */
+    private static final class PlanMapper<T> implements TupleMapper<T> {
+
+        private final MappingPlan plan;
+        private final Class<T> dtoClass;
+        private FieldStep[] steps;
+        private int[] positions;
+
+        PlanMapper(MappingPlan plan, Class<T> dtoClass) {
+            this.plan = plan;
+            this.dtoClass = dtoClass;
+        }
+
+        @Override
+        public T map(Tuple tuple) {
+            if (steps == null) {
+                bind(tuple.getElements());
+            }
+            try {
+                Object dto = plan.constructor().invokeExact();
+                for (int i = 0; i < steps.length; i++) {
+                    Object value = tuple.get(positions[i]);
+                    if (value != null) {
+                        steps[i].apply(dto, value);
+                    }
+                }
+                return dtoClass.cast(dto);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to map to DTO", e);
+            }
+        }
+
+        private void bind(List<TupleElement<?>> elements) {
+            Map<String, Integer> aliasPositions = new HashMap<>(elements.size() * 2);
+            for (int i = 0; i < elements.size(); i++) {
+                aliasPositions.put(elements.get(i).getAlias(), i);
+            }
+            List<FieldStep> bound = plan.steps().stream()
+                    .filter(step -> aliasPositions.containsKey(step.alias()))
+                    .toList();
+            positions = bound.stream()
+                    .mapToInt(step -> aliasPositions.get(step.alias()))
+                    .toArray();
+            steps = bound.toArray(FieldStep[]::new);
+        }
+    }
+
+    /**
+     * Writes one tuple value: walks the nested DTOs of the path, creating missing ones, then writes the leaf.
+     */
+    private record FieldStep(String alias, MethodHandle[] getters, MethodHandle[] setters,
+                             MethodHandle[] constructors, Leaf leaf) {
+
+        void apply(Object dto, Object value) throws Throwable {
+            Object current = dto;
+            for (int i = 0; i < getters.length; i++) {
+                Object nested = getters[i].invokeExact(current);
+                if (nested == null) {
+                    nested = constructors[i].invokeExact();
+                    setters[i].invokeExact(current, nested);
+                }
+                current = nested;
+            }
+            leaf.write(current, value);
+        }
+    }
+
+    private interface Leaf {
+        void write(Object owner, Object value) throws Throwable;
+    }
+
+    private record FieldLeaf(MethodHandle setter, Class<?> targetType) implements Leaf {
+
+        @Override
+        public void write(Object owner, Object value) throws Throwable {
+            setter.invokeExact(owner, convertValue(value, targetType));
+        }
+    }
+
+    /**
+     * Puts a json fragment into the owner's map field under {@code keys}, creating intermediate maps.
+     */
+    private record JsonLeaf(MethodHandle getter, MethodHandle setter, String[] keys,
+                            ObjectMapper objectMapper) implements Leaf {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(Object owner, Object value) throws Throwable {
+            Object document = getter.invokeExact(owner);
+            Map<String, Object> current = (Map<String, Object>) document;
+            if (current == null) {
+                current = new LinkedHashMap<>();
+                setter.invokeExact(owner, (Object) current);
+            }
+            for (int i = 0; i < keys.length - 1; i++) {
+                Object nested = current.get(keys[i]);
+                if (!(nested instanceof Map)) {
+                    nested = new LinkedHashMap<String, Object>();
+                    current.put(keys[i], nested);
+                }
+                current = (Map<String, Object>) nested;
+            }
+            current.put(keys[keys.length - 1], parse(value));
+        }
+
+        private Object parse(Object value) throws JsonProcessingException {
+            return value instanceof String json ? objectMapper.readValue(json, Object.class) : value;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.storage.storageservice.utils;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDv7 values (RFC 9562).
+ *
+ * Layout: 48-bit unix millis | version 7 | 12-bit counter | variant | 62 random bits.
+ * The millis and the counter are kept in one {@link AtomicLong}, so ids are strictly increasing
+ * within the JVM without locking: inside one millisecond the counter grows, and when it overflows
+ * it carries into the timestamp, which then runs slightly ahead of the clock until it catches up.
+ *
+ * Plugged into Hibernate through {@code @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)};
+ * code that writes rows past Hibernate (COPY, JDBC batches) calls {@link #next()} directly.
+ */
+public class TimeOrderedUuidGenerator implements UuidValueGenerator {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_BITS = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        long state = LAST.updateAndGet(TimeOrderedUuidGenerator::advance);
+        long msb = (state >>> COUNTER_BITS) << 16 | VERSION_7 | (state & COUNTER_MASK);
+        long lsb = ThreadLocalRandom.current().nextLong() & RANDOM_BITS | VARIANT_RFC;
+        return new UUID(msb, lsb);
+    }
+
+    private static long advance(long last) {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        return now > last ? now : last + 1;
+    }
+}
@@ -0,0 +1,95 @@
+package com.storage.storageservice.benchmark;
+
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.EmployeeDto;
+import com.storage.storageservice.utils.ArtifactRedisSerializer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the Redis value serializers for {@link ArtifactDto}: entry size and encode/decode time
+ * for a single artifact and for artifacts with children.
+ * <pre>
+ * ./gradlew benchmark -Pbenchmark=ArtifactSerializerBenchmark -Dbench.iterations=200000
+ * </pre>
+ */
+public class ArtifactSerializerBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 100_000);
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 20_000);
+    private static final int THRESHOLD = Integer.getInteger("bench.compressThreshold", 512);
+
+    static volatile long blackhole;
+
+    public static void main(String[] args) {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        Map<String, RedisSerializer<Object>> serializers = new LinkedHashMap<>();
+        serializers.put("json", json);
+        serializers.put("binary", new ArtifactRedisSerializer(json, true, Integer.MAX_VALUE));
+        serializers.put("binary+deflate", new ArtifactRedisSerializer(json, true, THRESHOLD));
+
+        System.out.printf("%-8s %-16s %10s %14s %14s%n", "shape", "serializer", "bytes", "encode, ns", "decode, ns");
+        for (int children : new int[]{0, 10, 50}) {
+            ArtifactDto artifact = artifact(children);
+            serializers.forEach((name, serializer) -> run("tree/" + children, name, serializer, artifact));
+        }
+    }
+
+    private static void run(String shape, String name, RedisSerializer<Object> serializer, ArtifactDto artifact) {
+        byte[] bytes = serializer.serialize(artifact);
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += serializer.serialize(artifact).length;
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializer.serialize(artifact).length;
+        }
+        long encodeNanos = (System.nanoTime() - started) / ITERATIONS;
+
+        started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+        long decodeNanos = (System.nanoTime() - started) / ITERATIONS;
+
+        blackhole = sink;
+        System.out.printf("%-8s %-16s %10d %14d %14d%n", shape, name, bytes.length, encodeNanos, decodeNanos);
+    }
+
+    private static ArtifactDto artifact(int children) {
+        List<ArtifactDto> list = new ArrayList<>();
+        for (int i = 0; i < children; i++) {
+            list.add(node("child-" + i, null));
+        }
+        return node("root", list);
+    }
+
+    private static ArtifactDto node(String name, List<ArtifactDto> children) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("series", "S-" + random.nextInt(1000));
+        payload.put("department", "department-" + random.nextInt(20));
+        payload.put("price", random.nextInt(100_000));
+        payload.put("weight", random.nextDouble());
+        payload.put("active", random.nextBoolean());
+        return ArtifactDto.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .surname("surname-" + random.nextInt(1000))
+                .payload(payload)
+                .children(children)
+                .employee(new EmployeeDto("Ivan", "Petrov"))
+                .build();
+    }
+}
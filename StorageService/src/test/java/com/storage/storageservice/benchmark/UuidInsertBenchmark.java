@@ -0,0 +1,90 @@
+package com.storage.storageservice.benchmark;
+
+import com.storage.storageservice.utils.TimeOrderedUuidGenerator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Compares random UUIDv4 keys (the former {@code GenerationType.UUID}) with {@link TimeOrderedUuidGenerator}
+ * on a table shaped like {@code artifact}: insert throughput, primary key index size and WAL written.
+ *
+ * Needs a running PostgreSQL, e.g. the one from compose.yaml:
+ * <pre>
+ * ./gradlew benchmark -Pbenchmark=UuidInsertBenchmark -Dbench.rows=2000000
+ * </pre>
+ * Connection settings: {@code bench.url}, {@code bench.user}, {@code bench.password}.
+ */
+public class UuidInsertBenchmark {
+
+    private static final String URL = System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/mydatabase");
+    private static final String USER = System.getProperty("bench.user", "postgres");
+    private static final String PASSWORD = System.getProperty("bench.password", "postgres");
+    private static final int ROWS = Integer.getInteger("bench.rows", 1_000_000);
+    private static final int BATCH_SIZE = Integer.getInteger("bench.batch", 1_000);
+
+    public static void main(String[] args) throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL + "?reWriteBatchedInserts=true", USER, PASSWORD)) {
+            System.out.printf("%-10s %12s %14s %16s %14s%n", "generator", "rows", "rows/s", "pk index, MB", "WAL, MB");
+            run(con, "uuid_v4", UUID::randomUUID);
+            run(con, "uuid_v7", TimeOrderedUuidGenerator::next);
+        }
+    }
+
+    private static void run(Connection con, String name, Supplier<UUID> ids) throws SQLException {
+        String table = "bench_" + name;
+        try (Statement st = con.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + table);
+            st.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, version bigint, name varchar(255), payload jsonb)");
+        }
+        con.setAutoCommit(false);
+        long walBefore = walPosition(con);
+        long started = System.nanoTime();
+
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO " + table + " (id, version, name, payload) VALUES (?, 0, ?, ?::jsonb)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                ps.setObject(1, ids.get());
+                ps.setString(2, "artifact-" + i);
+                ps.setString(3, "{\"price\": " + ThreadLocalRandom.current().nextInt() + "}");
+                ps.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                    con.commit();
+                }
+            }
+            ps.executeBatch();
+            con.commit();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long walBytes = walPosition(con) - walBefore;
+        long indexBytes = queryLong(con, "SELECT pg_relation_size('" + table + "_pkey')");
+        con.setAutoCommit(true);
+
+        System.out.printf("%-10s %12d %14.0f %16.1f %14.1f%n",
+                name, ROWS, ROWS / seconds, indexBytes / 1048576.0, walBytes / 1048576.0);
+
+        try (Statement st = con.createStatement()) {
+            st.execute("DROP TABLE " + table);
+        }
+    }
+
+    private static long walPosition(Connection con) throws SQLException {
+        return queryLong(con, "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint");
+    }
+
+    private static long queryLong(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.storage.storageservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storage.storageservice.dto.ArtifactAggregationDto;
+import com.storage.storageservice.dto.ArtifactAggregationRequest;
+import com.storage.storageservice.dto.ArtifactCacheStatsDto;
 import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.ArtifactImportReportDto;
+import com.storage.storageservice.dto.ArtifactPageDto;
+import com.storage.storageservice.dto.CacheTierStatsDto;
+import com.storage.storageservice.dto.CustomArtifactBatchDto;
+import com.storage.storageservice.dto.CustomArtifactBatchRequest;
 import com.storage.storageservice.dto.CustomArtifactRequest;
 import com.storage.storageservice.dto.EmployeeDto;
+import com.storage.storageservice.dto.GenerationJobDto;
 import com.storage.storageservice.service.ArtifactService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +21,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +34,9 @@ import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -81,18 +98,78 @@ class ArtifactControllerTest {
     }
 
     @Test
-    void generateSomeArtifacts_ShouldReturnNoContent() throws Exception {
+    void generateSomeArtifacts_ShouldReturnJobId() throws Exception {
         // Given
         int count = 5;
+        UUID jobId = UUID.randomUUID();
+        when(artifactService.generateSomeArtifacts(count)).thenReturn(jobId);
 
         // When & Then
         mockMvc.perform(post("/api/v2/artifact/{count}/generate", count)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().string("\"" + jobId + "\""));
 
         verify(artifactService).generateSomeArtifacts(count);
     }
 
+    @Test
+    void getGenerationJob_ShouldReturnProgress() throws Exception {
+        // Given
+        UUID jobId = UUID.randomUUID();
+        GenerationJobDto job = GenerationJobDto.builder()
+                .jobId(jobId)
+                .status(GenerationJobDto.Status.RUNNING)
+                .requested(100)
+                .persisted(50)
+                .build();
+        when(artifactService.getGenerationJob(jobId)).thenReturn(job);
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/artifact/generate/{jobId}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.persisted").value(50));
+
+        verify(artifactService).getGenerationJob(jobId);
+    }
+
+    @Test
+    void bulkInsert_ShouldReturnWrittenRows() throws Exception {
+        // Given
+        List<ArtifactDto> request = List.of(artifactDto, artifactDto);
+        when(artifactService.bulkInsert(any(List.class))).thenReturn(2L);
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/artifact/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        verify(artifactService).bulkInsert(any(List.class));
+    }
+
+    @Test
+    void importNdjson_ShouldReturnReport() throws Exception {
+        // Given
+        ArtifactImportReportDto report = ArtifactImportReportDto.builder()
+                .received(2)
+                .imported(2)
+                .build();
+        when(artifactService.importNdjson(any(InputStream.class))).thenReturn(report);
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/artifact/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"a\"}\n{\"name\":\"b\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failedBatches").isEmpty());
+
+        verify(artifactService).importNdjson(any(InputStream.class));
+    }
+
     @Test
     void getByJsonField_ShouldReturnArtifactDto() throws Exception {
         // Given
@@ -152,4 +229,180 @@ class ArtifactControllerTest {
 
         verify(artifactService).getCustomById(any(CustomArtifactRequest.class));
     }
+
+    @Test
+    void getCustomRequestByIds_ShouldReturnItemsAndMissingIds() throws Exception {
+        // Given
+        UUID missing = UUID.randomUUID();
+        CustomArtifactBatchRequest request = CustomArtifactBatchRequest.builder()
+                .ids(List.of(UUID.randomUUID(), missing))
+                .requiredResponseFields(Set.of("name"))
+                .build();
+        when(artifactService.getCustomByIds(any(CustomArtifactBatchRequest.class)))
+                .thenReturn(new CustomArtifactBatchDto(List.of(artifactDto), List.of(missing)));
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/artifact/customFields/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Test Artifact"))
+                .andExpect(jsonPath("$.missingIds[0]").value(missing.toString()));
+    }
+
+    @Test
+    void getByIds_ShouldReturnArtifacts() throws Exception {
+        // Given
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(artifactService.getByIds(ids)).thenReturn(List.of(artifactDto));
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/artifact/getByIds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Test Artifact"));
+
+        verify(artifactService).getByIds(ids);
+    }
+
+    @Test
+    void getCacheStats_ShouldReturnBothTiers() throws Exception {
+        // Given
+        when(artifactService.getCacheStats()).thenReturn(ArtifactCacheStatsDto.builder()
+                .l1(CacheTierStatsDto.of(3, 1, 10L))
+                .l2(CacheTierStatsDto.of(1, 0, null))
+                .build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/artifact/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.l1.hitRate").value(0.75))
+                .andExpect(jsonPath("$.l1.size").value(10))
+                .andExpect(jsonPath("$.l2.hits").value(1));
+    }
+
+    @Test
+    void aggregate_ShouldReturnGroups() throws Exception {
+        // Given
+        ArtifactAggregationRequest request = ArtifactAggregationRequest.builder()
+                .groupBy(List.of("department"))
+                .metric("price")
+                .build();
+        ArtifactAggregationDto.Group group = ArtifactAggregationDto.Group.builder()
+                .key(Map.of("department", "qa"))
+                .count(3)
+                .metricCount(2)
+                .sum(new BigDecimal("10.5"))
+                .build();
+        when(artifactService.aggregate(any(ArtifactAggregationRequest.class)))
+                .thenReturn(new ArtifactAggregationDto(List.of(group), false));
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/artifact/aggregate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groups[0].key.department").value("qa"))
+                .andExpect(jsonPath("$.groups[0].sum").value(10.5))
+                .andExpect(jsonPath("$.truncated").value(false));
+    }
+
+    @Test
+    void getProjectionPlanStats_ShouldReturnPlanCacheCounters() throws Exception {
+        // Given
+        when(artifactService.getProjectionPlanStats()).thenReturn(CacheTierStatsDto.of(9, 1, 2L));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/artifact/customFields/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(9))
+                .andExpect(jsonPath("$.hitRate").value(0.9))
+                .andExpect(jsonPath("$.size").value(2));
+    }
+
+    @Test
+    void getPageByJsonField_ShouldReturnItemsAndCursor() throws Exception {
+        // Given
+        when(artifactService.getPageByJsonField("department", "x", "abc", 2))
+                .thenReturn(new ArtifactPageDto(List.of(artifactDto), "next"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/artifact/page")
+                        .param("key", "department")
+                        .param("value", "x")
+                        .param("cursor", "abc")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Test Artifact"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getPageByNativeJsonFields_ShouldStartFromFirstPage_WhenNoCursor() throws Exception {
+        // Given
+        Map<String, Object> filter = Map.of("department", "x");
+        when(artifactService.getPageByNativeJsonFields(eq(filter), isNull(), isNull()))
+                .thenReturn(new ArtifactPageDto(List.of(artifactDto), null));
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/artifact/json/page")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(filter)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Test Artifact"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void streamByNativeJsonFields_ShouldWriteNdjson() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"name\":\"a\"}\n{\"name\":\"b\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(artifactService).streamByNativeJsonFields(anyMap(), any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v2/artifact/json/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"department\":\"x\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"name\":\"a\"}\n{\"name\":\"b\"}\n"));
+    }
+
+    @Test
+    void getPageByRange_ShouldPassBounds() throws Exception {
+        // Given
+        when(artifactService.getPageByRange("price", 10L, 20L, null, null))
+                .thenReturn(new ArtifactPageDto(List.of(artifactDto), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/artifact/range")
+                        .param("key", "price")
+                        .param("from", "10")
+                        .param("to", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Test Artifact"));
+    }
+
+    @Test
+    void getById_ShouldPassDepth() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(artifactService.getById(id, 2)).thenReturn(artifactDto);
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/artifact/getById")
+                        .param("id", id.toString())
+                        .param("depth", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test Artifact"));
+    }
 }
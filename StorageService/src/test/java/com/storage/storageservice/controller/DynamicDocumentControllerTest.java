@@ -0,0 +1,107 @@
+package com.storage.storageservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storage.storageservice.dto.DynamicDocumentBulkReportDto;
+import com.storage.storageservice.dto.DynamicDocumentBulkRequest;
+import com.storage.storageservice.dto.DynamicDocumentPageDto;
+import com.storage.storageservice.dto.DynamicDocumentQueryRequest;
+import com.storage.storageservice.service.DynamicDocumentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DynamicDocumentController.class)
+class DynamicDocumentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DynamicDocumentService dynamicDocumentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void addDocuments_ShouldReturnReport() throws Exception {
+        // Given
+        DynamicDocumentBulkReportDto report = DynamicDocumentBulkReportDto.builder()
+                .received(2)
+                .imported(1)
+                .failed(1)
+                .failedDocuments(List.of(new DynamicDocumentBulkReportDto.FailedDocument(1, "Unknown property x")))
+                .build();
+        when(dynamicDocumentService.addDocuments(any(DynamicDocumentBulkRequest.class))).thenReturn(report);
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/dd/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DynamicDocumentBulkRequest(UUID.randomUUID(), List.of()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failedDocuments[0].index").value(1));
+    }
+
+    @Test
+    void query_ShouldReturnPageWithPivotedFields() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(dynamicDocumentService.query(any(DynamicDocumentQueryRequest.class))).thenReturn(new DynamicDocumentPageDto(
+                List.of(new DynamicDocumentPageDto.Item(id, "John", "Doe", Map.of("age", 42))), "next"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/dd/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"documentTypeId": "%s", "predicates": [
+                                  {"propertyName": "age", "contentType": "number", "operator": "RANGE", "from": 18}
+                                ]}
+                                """.formatted(UUID.randomUUID())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.items[0].fields.age").value(42))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(dynamicDocumentService).query(argThat(request ->
+                request.getPredicates().getFirst().getOperator() == DynamicDocumentQueryRequest.Operator.RANGE));
+    }
+
+    @Test
+    void getDocument_ShouldReturnDocumentWithSnapshotFields() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(dynamicDocumentService.getDocument(id))
+                .thenReturn(new DynamicDocumentPageDto.Item(id, "John", "Doe", Map.of("series", "1234")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/dd/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John"))
+                .andExpect(jsonPath("$.fields.series").value("1234"));
+    }
+
+    @Test
+    void getPage_ShouldPassCursorAndLimit() throws Exception {
+        // Given
+        when(dynamicDocumentService.getPage("abc", 10)).thenReturn(new DynamicDocumentPageDto(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/dd").param("cursor", "abc").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+
+        verify(dynamicDocumentService).getPage("abc", 10);
+    }
+}
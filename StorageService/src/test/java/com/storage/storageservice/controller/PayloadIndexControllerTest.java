@@ -0,0 +1,70 @@
+package com.storage.storageservice.controller;
+
+import com.storage.storageservice.dto.PayloadIndexAdviceDto;
+import com.storage.storageservice.service.PayloadIndexService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PayloadIndexController.class)
+class PayloadIndexControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PayloadIndexService payloadIndexService;
+
+    @Test
+    void getAdvice_ShouldReturnProposals() throws Exception {
+        // Given
+        when(payloadIndexService.getAdvice()).thenReturn(List.of(PayloadIndexAdviceDto.builder()
+                .indexName("artifact_payload_path_ops_idx")
+                .operator(PayloadIndexAdviceDto.Operator.CONTAINMENT)
+                .keys(List.of("series"))
+                .calls(120)
+                .build()));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/admin/payloadIndex"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].indexName").value("artifact_payload_path_ops_idx"))
+                .andExpect(jsonPath("$[0].operator").value("CONTAINMENT"))
+                .andExpect(jsonPath("$[0].calls").value(120));
+    }
+
+    @Test
+    void apply_ShouldCreateAllProposals_WhenNoBody() throws Exception {
+        // Given
+        when(payloadIndexService.apply(List.of())).thenReturn(Map.of("artifact_payload_path_ops_idx", "created"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/admin/payloadIndex/apply"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.artifact_payload_path_ops_idx").value("created"));
+    }
+
+    @Test
+    void apply_ShouldPassRequestedNames() throws Exception {
+        // Given
+        when(payloadIndexService.apply(List.of("artifact_payload_price_num_idx"))).thenReturn(Map.of());
+
+        // When & Then
+        mockMvc.perform(post("/api/v2/admin/payloadIndex/apply")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"artifact_payload_price_num_idx\"]"))
+                .andExpect(status().isOk());
+
+        verify(payloadIndexService).apply(List.of("artifact_payload_price_num_idx"));
+    }
+}
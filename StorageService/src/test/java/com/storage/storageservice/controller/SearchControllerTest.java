@@ -0,0 +1,65 @@
+package com.storage.storageservice.controller;
+
+import com.storage.storageservice.dto.SearchHitDto;
+import com.storage.storageservice.dto.SearchPageDto;
+import com.storage.storageservice.service.SearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @Test
+    void search_ShouldUsePrefixModeAndAllScopeByDefault() throws Exception {
+        // Given
+        SearchHitDto hit = SearchHitDto.builder()
+                .kind(SearchHitDto.Kind.CONTRACT)
+                .id(UUID.randomUUID())
+                .name("Petrovich")
+                .score(0.5f)
+                .build();
+        when(searchService.search("petr", SearchPageDto.Mode.PREFIX, SearchPageDto.Scope.ALL, null, 0))
+                .thenReturn(new SearchPageDto(List.of(hit), 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/search").param("q", "petr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].kind").value("CONTRACT"))
+                .andExpect(jsonPath("$.items[0].name").value("Petrovich"))
+                .andExpect(jsonPath("$.nextOffset").value(1));
+    }
+
+    @Test
+    void search_ShouldPassModeScopeAndPaging() throws Exception {
+        // Given
+        when(searchService.search("petrof", SearchPageDto.Mode.SIMILAR, SearchPageDto.Scope.DOCUMENT, 10, 20))
+                .thenReturn(new SearchPageDto(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/v2/search")
+                        .param("q", "petrof")
+                        .param("mode", "SIMILAR")
+                        .param("scope", "DOCUMENT")
+                        .param("limit", "10")
+                        .param("offset", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextOffset").doesNotExist());
+    }
+}
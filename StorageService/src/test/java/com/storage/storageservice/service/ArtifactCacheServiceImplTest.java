@@ -0,0 +1,146 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dto.ArtifactCacheStatsDto;
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.service.impl.ArtifactCacheServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtifactCacheServiceImplTest {
+
+    private static final String CHANNEL = "invalidation";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private ArtifactCacheServiceImpl cacheService;
+
+    private final UUID id = UUID.randomUUID();
+    private final ArtifactDto dto = ArtifactDto.builder().id(id).name("cached").build();
+
+    @BeforeEach
+    void setUp() {
+        cacheService = new ArtifactCacheServiceImpl(redisTemplate, stringRedisTemplate, listenerContainer);
+        ReflectionTestUtils.setField(cacheService, "l1MaxSize", 100L);
+        ReflectionTestUtils.setField(cacheService, "l1TtlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheService, "invalidationChannel", CHANNEL);
+        ReflectionTestUtils.invokeMethod(cacheService, "init");
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadsFromL1() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(id.toString())).thenReturn(dto);
+
+        // When
+        cacheService.get(id.toString());
+        ArtifactDto second = cacheService.get(id.toString());
+
+        // Then
+        assertSame(dto, second);
+        verify(valueOperations, times(1)).get(id.toString());
+        ArtifactCacheStatsDto stats = cacheService.stats();
+        assertEquals(1, stats.getL1().getHits());
+        assertEquals(1, stats.getL1().getMisses());
+        assertEquals(1, stats.getL2().getHits());
+        assertEquals(0, stats.getL2().getMisses());
+    }
+
+    @Test
+    void put_ShouldPublishInvalidationForOtherNodes() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // When
+        cacheService.put(dto);
+
+        // Then
+        verify(stringRedisTemplate).convertAndSend(eq(CHANNEL), endsWith("|" + id));
+        assertSame(dto, cacheService.get(id.toString()));
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    void onMessage_ShouldDropEntriesInvalidatedByOtherNode() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cacheService.put(dto);
+
+        // When
+        cacheService.onMessage(message(UUID.randomUUID() + "|" + id), null);
+        cacheService.get(id.toString());
+
+        // Then
+        verify(valueOperations).get(id.toString());
+    }
+
+    @Test
+    void onMessage_ShouldIgnoreOwnInvalidations() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        List<String> published = new ArrayList<>();
+        doAnswer(invocation -> published.add(invocation.getArgument(1)))
+                .when(stringRedisTemplate).convertAndSend(eq(CHANNEL), anyString());
+        cacheService.put(dto);
+
+        // When
+        cacheService.onMessage(message(published.get(0)), null);
+
+        // Then
+        assertSame(dto, cacheService.get(id.toString()));
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    void multiget_ShouldAskRedisOnlyForL1Misses() {
+        // Given
+        UUID other = UUID.randomUUID();
+        ArtifactDto otherDto = ArtifactDto.builder().id(other).build();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cacheService.put(dto);
+        when(valueOperations.multiGet(List.of(other.toString()))).thenReturn(List.of(otherDto));
+
+        // When
+        Map<UUID, ArtifactDto> result = cacheService.multiget(List.of(id, other));
+
+        // Then
+        assertEquals(Map.of(id, dto, other, otherDto), result);
+        verify(valueOperations).multiGet(any());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.GenerationJobDto;
+import com.storage.storageservice.model.Artifact;
+import com.storage.storageservice.service.impl.ArtifactGenerationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtifactGenerationServiceImplTest {
+
+    @Mock
+    private ArtifactBatchService artifactBatchService;
+
+    @Mock
+    private ArtifactCacheService artifactCacheService;
+
+    private ExecutorService executorService;
+
+    private ArtifactGenerationServiceImpl generationService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(8);
+        generationService = new ArtifactGenerationServiceImpl(executorService, artifactBatchService, artifactCacheService);
+        ReflectionTestUtils.setField(generationService, "poolSize", 8);
+        ReflectionTestUtils.setField(generationService, "batchSize", 50);
+        ReflectionTestUtils.setField(generationService, "queueCapacity", 2);
+        ReflectionTestUtils.setField(generationService, "producers", 2);
+        ReflectionTestUtils.setField(generationService, "writers", 3);
+        ReflectionTestUtils.setField(generationService, "cachers", 2);
+        ReflectionTestUtils.invokeMethod(generationService, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void start_ShouldPersistAndCacheEveryArtifact() throws Exception {
+        // Given
+        when(artifactBatchService.persistBatch(anyList())).thenAnswer(invocation -> {
+            List<Artifact> batch = invocation.getArgument(0);
+            return batch.stream().map(a -> ArtifactDto.builder().name(a.getName()).build()).toList();
+        });
+
+        // When
+        UUID jobId = generationService.start(1010);
+        GenerationJobDto job = awaitFinished(jobId);
+
+        // Then
+        assertEquals(GenerationJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(1010, job.getProduced());
+        assertEquals(1010, job.getPersisted());
+        assertEquals(1010, job.getCached());
+        assertEquals(3030, job.getPersistedRows());
+        verify(artifactBatchService, times(21)).persistBatch(anyList());
+    }
+
+    @Test
+    void start_ShouldFailJobAndReleaseThreads_WhenPersistFails() throws Exception {
+        // Given
+        when(artifactBatchService.persistBatch(anyList())).thenThrow(new IllegalStateException("db is down"));
+
+        // When
+        GenerationJobDto job = awaitFinished(generationService.start(500));
+
+        // Then
+        assertEquals(GenerationJobDto.Status.FAILED, job.getStatus());
+        assertEquals("db is down", job.getError());
+        verifyNoInteractions(artifactCacheService);
+        assertNotNull(awaitStart());
+    }
+
+    @Test
+    void start_ShouldRejectNonPositiveCount() {
+        assertThrows(IllegalArgumentException.class, () -> generationService.start(0));
+    }
+
+    private GenerationJobDto awaitFinished(UUID jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            GenerationJobDto job = generationService.getJob(jobId);
+            if (job.getStatus() != GenerationJobDto.Status.RUNNING) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Generation job did not finish in time");
+        return null;
+    }
+
+    /**
+     * Worker threads give their slots back right after the job status changes, so retry briefly.
+     */
+    private UUID awaitStart() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            try {
+                return generationService.start(1);
+            } catch (IllegalStateException busy) {
+                Thread.sleep(10);
+            }
+        }
+        fail("Generation pipeline did not release its threads");
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.storage.storageservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storage.storageservice.service.impl.ArtifactQueryCacheServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtifactQueryCacheServiceImplTest {
+
+    private ArtifactQueryCacheServiceImpl queryCache;
+
+    private final List<UUID> ids = List.of(UUID.randomUUID());
+
+    @BeforeEach
+    void setUp() {
+        queryCache = new ArtifactQueryCacheServiceImpl(new ObjectMapper());
+        ReflectionTestUtils.setField(queryCache, "maxWeight", 1_000_000L);
+        ReflectionTestUtils.setField(queryCache, "maxEntryWeight", 1_000);
+        ReflectionTestUtils.setField(queryCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(queryCache, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void key_ShouldNotDependOnKeyOrder() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("b", 1);
+        first.put("a", Map.of("y", 2, "x", 1));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("a", Map.of("x", 1, "y", 2));
+        second.put("b", 1);
+
+        assertEquals(queryCache.key(first), queryCache.key(second));
+        assertEquals("{\"a\":{\"x\":1,\"y\":2},\"b\":1}", queryCache.key(first));
+    }
+
+    @Test
+    void key_ShouldSkipFiltersHeavierThanEntryLimit() {
+        assertNull(queryCache.key(Map.of("series", "x".repeat(1_000))));
+    }
+
+    @Test
+    void invalidateMatching_ShouldDropOnlyFiltersContainedInWrittenPayload() {
+        // Given
+        Map<String, Object> matching = Map.of("department", "qa", "meta", Map.of("tags", List.of("a")));
+        Map<String, Object> other = Map.of("department", "dev");
+        put(matching);
+        put(other);
+
+        // When
+        queryCache.invalidateMatching(List.of(Map.of("department", "qa", "price", 5,
+                "meta", Map.of("tags", List.of("a", "b")))));
+
+        // Then
+        assertNull(queryCache.get(queryCache.key(matching)));
+        assertEquals(ids, queryCache.get(queryCache.key(other)));
+    }
+
+    @Test
+    void invalidateMatching_ShouldCompareNumbersByValue() {
+        // Given
+        Map<String, Object> filter = Map.of("price", 10);
+        put(filter);
+
+        // When
+        queryCache.invalidateMatching(List.of(Map.of("price", 10L)));
+
+        // Then
+        assertNull(queryCache.get(queryCache.key(filter)));
+    }
+
+    @Test
+    void invalidateMatching_ShouldWaitForCommitInsideTransaction() {
+        // Given
+        Map<String, Object> filter = Map.of("department", "qa");
+        put(filter);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        queryCache.invalidateMatching(List.of(Map.of("department", "qa")));
+
+        // Then
+        assertEquals(ids, queryCache.get(queryCache.key(filter)));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(queryCache.get(queryCache.key(filter)));
+    }
+
+    @Test
+    void put_ShouldSkipResultReadBeforeConcurrentWrite() {
+        // Given
+        Map<String, Object> filter = Map.of("department", "qa");
+        long generation = queryCache.generation();
+        queryCache.invalidateMatching(List.of(Map.of("department", "dev")));
+
+        // When
+        queryCache.put(queryCache.key(filter), filter, ids, generation);
+
+        // Then
+        assertNull(queryCache.get(queryCache.key(filter)));
+    }
+
+    @Test
+    void stats_ShouldCountHitsAndMisses() {
+        Map<String, Object> filter = Map.of("department", "qa");
+        queryCache.get(queryCache.key(filter));
+        put(filter);
+        queryCache.get(queryCache.key(filter));
+
+        assertEquals(1, queryCache.stats().getHits());
+        assertEquals(1, queryCache.stats().getMisses());
+        assertEquals(1L, queryCache.stats().getSize());
+    }
+
+    private void put(Map<String, Object> filter) {
+        queryCache.put(queryCache.key(filter), filter, ids, queryCache.generation());
+    }
+}
@@ -0,0 +1,462 @@
+package com.storage.storageservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storage.storageservice.dto.ArtifactAggregationDto;
+import com.storage.storageservice.dto.ArtifactAggregationRequest;
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dao.ArtifactDao;
+import com.storage.storageservice.dto.ArtifactImportReportDto;
+import com.storage.storageservice.dto.ArtifactPageDto;
+import com.storage.storageservice.dto.CustomArtifactBatchDto;
+import com.storage.storageservice.dto.CustomArtifactBatchRequest;
+import com.storage.storageservice.mapper.ArtifactMapper;
+import com.storage.storageservice.model.Artifact;
+import com.storage.storageservice.repository.ArtifactRepository;
+import com.storage.storageservice.service.impl.ArtifactServiceImpl;
+import com.storage.storageservice.utils.DynamicDtoMapper;
+import com.storage.storageservice.utils.KeysetCursor;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArtifactServiceImplTest {
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ArtifactBatchService artifactBatchService;
+
+    @Mock
+    private ArtifactCacheService artifactCacheService;
+
+    @Mock
+    private ArtifactRepository artifactRepository;
+
+    @Mock
+    private ArtifactMapper artifactMapper;
+
+    @Mock
+    private ArtifactDao artifactDao;
+
+    @Mock
+    private PayloadIndexService payloadIndexService;
+
+    @Mock
+    private DynamicDtoMapper dynamicDtoMapper;
+
+    @Mock
+    private ArtifactQueryCacheService artifactQueryCacheService;
+
+    @InjectMocks
+    private ArtifactServiceImpl artifactService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(artifactService, "importBatchSize", 2);
+        ReflectionTestUtils.setField(artifactService, "maxSubtreeDepth", 64);
+        ReflectionTestUtils.setField(artifactService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(artifactService, "maxPageSize", 10);
+        ReflectionTestUtils.setField(artifactService, "streamFetchSize", 2);
+        ReflectionTestUtils.setField(artifactService, "maxProjectionBatchSize", 3);
+        ReflectionTestUtils.setField(artifactService, "maxGroupKeys", 2);
+        ReflectionTestUtils.setField(artifactService, "maxGroups", 2);
+        // По умолчанию кэш результатов пуст: мок вернул бы пустой список, то есть закэшированное "не найдено"
+        lenient().when(artifactQueryCacheService.get(any())).thenReturn(null);
+    }
+
+    @Test
+    void importNdjson_ShouldWriteInBatches() {
+        // Given
+        when(artifactBatchService.copyBatch(anyList()))
+                .thenAnswer(invocation -> (long) invocation.<List<ArtifactDto>>getArgument(0).size());
+
+        // When
+        ArtifactImportReportDto report = artifactService.importNdjson(ndjson("""
+                {"name":"a1","surname":"s"}
+                {"name":"a2","surname":"s","children":[{"name":"c","surname":"s"}]}
+
+                {"name":"a3","surname":"s"}
+                """));
+
+        // Then
+        assertEquals(3, report.getReceived());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertTrue(report.getFailedBatches().isEmpty());
+        verify(artifactBatchService, times(2)).copyBatch(anyList());
+    }
+
+    @Test
+    void importNdjson_ShouldReportFailedBatchAndContinue() {
+        // Given
+        when(artifactBatchService.copyBatch(anyList()))
+                .thenThrow(new IllegalStateException("duplicate key"))
+                .thenReturn(1L);
+
+        // When
+        ArtifactImportReportDto report = artifactService.importNdjson(ndjson("""
+                {"name":"a1","surname":"s"}
+                {"name":"a2","surname":"s"}
+                {"name":"a3","surname":"s"}
+                """));
+
+        // Then
+        assertEquals(3, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        ArtifactImportReportDto.FailedBatch failed = report.getFailedBatches().get(0);
+        assertEquals(0, failed.getFirstRecord());
+        assertEquals(1, failed.getLastRecord());
+        assertEquals(0, failed.getByteOffset());
+        assertEquals("duplicate key", failed.getError());
+    }
+
+    @Test
+    void importNdjson_ShouldStopAtMalformedJson() {
+        // Given
+        when(artifactBatchService.copyBatch(anyList())).thenReturn(1L);
+
+        // When
+        ArtifactImportReportDto report = artifactService.importNdjson(ndjson("""
+                {"name":"a1","surname":"s"}
+                {"name": oops}
+                {"name":"a3","surname":"s"}
+                """));
+
+        // Then
+        assertEquals(1, report.getReceived());
+        assertEquals(1, report.getImported());
+        ArtifactImportReportDto.FailedBatch failed = report.getFailedBatches().get(0);
+        assertEquals(1, failed.getFirstRecord());
+        assertTrue(failed.getByteOffset() > 0);
+        assertTrue(failed.getError().startsWith("Import stopped"));
+        verify(artifactBatchService, times(1)).copyBatch(anyList());
+    }
+
+    @Test
+    void getByIds_ShouldLoadOnlyCacheMissesAndKeepRequestOrder() {
+        // Given
+        UUID cachedId = UUID.randomUUID();
+        UUID missedId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        ArtifactDto cached = ArtifactDto.builder().id(cachedId).name("cached").build();
+        ArtifactDto loaded = ArtifactDto.builder().id(missedId).name("loaded").build();
+        Artifact entity = Artifact.builder().id(missedId).build();
+
+        when(artifactCacheService.multiget(List.of(missedId, cachedId, unknownId)))
+                .thenReturn(Map.of(cachedId, cached));
+        when(artifactDao.findSubtrees(List.of(missedId, unknownId), 64)).thenReturn(List.of(entity));
+        when(artifactMapper.toDto(entity)).thenReturn(loaded);
+
+        // When
+        List<ArtifactDto> result = artifactService.getByIds(List.of(missedId, cachedId, unknownId, cachedId));
+
+        // Then
+        assertEquals(List.of(loaded, cached), result);
+        verify(artifactCacheService).multiset(List.of(loaded));
+    }
+
+    @Test
+    void getByIds_ShouldNotTouchDatabase_WhenEverythingIsCached() {
+        // Given
+        UUID id = UUID.randomUUID();
+        ArtifactDto cached = ArtifactDto.builder().id(id).build();
+        when(artifactCacheService.multiget(List.of(id))).thenReturn(Map.of(id, cached));
+
+        // When
+        List<ArtifactDto> result = artifactService.getByIds(List.of(id));
+
+        // Then
+        assertEquals(List.of(cached), result);
+        verifyNoInteractions(artifactDao);
+        verify(artifactCacheService, never()).multiset(any());
+    }
+
+    @Test
+    void getById_ShouldLoadSubtreeAndCache_WhenMissing() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Artifact entity = Artifact.builder().id(id).build();
+        ArtifactDto loaded = ArtifactDto.builder().id(id).name("loaded").build();
+        when(artifactDao.findSubtrees(List.of(id), 64)).thenReturn(List.of(entity));
+        when(artifactMapper.toDto(entity)).thenReturn(loaded);
+
+        // When
+        ArtifactDto result = artifactService.getById(id, null);
+
+        // Then
+        assertEquals(loaded, result);
+        verify(artifactCacheService).put(loaded);
+    }
+
+    @Test
+    void getById_ShouldThrow_WhenUnknown() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(artifactDao.findSubtrees(List.of(id), 64)).thenReturn(List.of());
+
+        // When & Then
+        assertThrows(NoSuchElementException.class, () -> artifactService.getById(id, null));
+        verify(artifactCacheService, never()).put(any());
+    }
+
+    @Test
+    void getById_ShouldNotTouchDatabase_WhenCached() {
+        // Given
+        UUID id = UUID.randomUUID();
+        ArtifactDto cached = ArtifactDto.builder().id(id).build();
+        when(artifactCacheService.get(id.toString())).thenReturn(cached);
+
+        // When
+        ArtifactDto result = artifactService.getById(id, null);
+
+        // Then
+        assertEquals(cached, result);
+        verifyNoInteractions(artifactDao);
+    }
+
+    @Test
+    void getById_ShouldCutCachedTreeToRequestedDepth() {
+        // Given
+        UUID id = UUID.randomUUID();
+        ArtifactDto grandChild = ArtifactDto.builder().name("grandChild").children(List.of()).build();
+        ArtifactDto child = ArtifactDto.builder().name("child").children(List.of(grandChild)).build();
+        ArtifactDto cached = ArtifactDto.builder().id(id).name("root").children(List.of(child)).build();
+        when(artifactCacheService.get(id.toString())).thenReturn(cached);
+
+        // When
+        ArtifactDto result = artifactService.getById(id, 1);
+
+        // Then
+        assertEquals("child", result.getChildren().get(0).getName());
+        assertTrue(result.getChildren().get(0).getChildren().isEmpty());
+        assertEquals(List.of(grandChild), cached.getChildren().get(0).getChildren());
+    }
+
+    @Test
+    void getPageByNativeJsonFields_ShouldReturnCursor_WhenMoreRowsExist() {
+        // Given
+        UUID after = UUID.randomUUID();
+        List<Artifact> rows = List.of(artifact("a1"), artifact("a2"), artifact("a3"));
+        when(artifactDao.findPageByJson(Map.of("department", "x"), after, 3)).thenReturn(rows);
+
+        // When
+        ArtifactPageDto page = artifactService.getPageByNativeJsonFields(
+                Map.of("department", "x"), KeysetCursor.encode(after), null);
+
+        // Then
+        assertEquals(List.of("a1", "a2"), page.getItems().stream().map(ArtifactDto::getName).toList());
+        assertEquals(rows.get(1).getId(), KeysetCursor.decode(page.getNextCursor()));
+        verify(payloadIndexService).record(eq(Set.of("department")), anyLong());
+    }
+
+    @Test
+    void getPageByJsonField_ShouldCapLimitAndEndWithoutCursor() {
+        // Given
+        when(artifactDao.findPageByJson(Map.of("department", "x"), null, 11)).thenReturn(List.of(artifact("a1")));
+
+        // When
+        ArtifactPageDto page = artifactService.getPageByJsonField("department", "x", null, 500);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void streamByNativeJsonFields_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<Artifact> consumer = invocation.getArgument(2);
+            consumer.accept(artifact("a1"));
+            consumer.accept(artifact("a2"));
+            consumer.accept(artifact("a3"));
+            return null;
+        }).when(artifactDao).streamByJson(eq(Map.of("department", "x")), anyInt(), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        artifactService.streamByNativeJsonFields(Map.of("department", "x"), out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("a3", objectMapper.readValue(lines[2], ArtifactDto.class).getName());
+    }
+
+    @Test
+    void getArtByJsonField_ShouldRejectAmbiguousMatch() {
+        // Given
+        when(artifactDao.findPageByJson(Map.of("department", "x"), null, 2))
+                .thenReturn(List.of(artifact("a1"), artifact("a2")));
+
+        // When & Then
+        assertThrows(IncorrectResultSizeDataAccessException.class,
+                () -> artifactService.getArtByJsonField("department", "x"));
+    }
+
+    @Test
+    void getArtByNativeJsonFields_ShouldReturnSingleMatch() {
+        // Given
+        Map<String, Object> filter = Map.of("price", 10);
+        when(artifactDao.findPageByJson(filter, null, 2)).thenReturn(List.of(artifact("a1")));
+
+        // When
+        ArtifactDto result = artifactService.getArtByNativeJsonFields(filter);
+
+        // Then
+        assertEquals("a1", result.getName());
+    }
+
+    @Test
+    void getArtByNativeJsonFields_ShouldCacheIdsOfMiss() {
+        // Given
+        Map<String, Object> filter = Map.of("price", 10);
+        Artifact found = artifact("a1");
+        when(artifactQueryCacheService.key(filter)).thenReturn("{\"price\":10}");
+        when(artifactQueryCacheService.generation()).thenReturn(7L);
+        when(artifactDao.findPageByJson(filter, null, 2)).thenReturn(List.of(found));
+
+        // When
+        artifactService.getArtByNativeJsonFields(filter);
+
+        // Then
+        verify(artifactQueryCacheService).put("{\"price\":10}", filter, List.of(found.getId()), 7L);
+    }
+
+    @Test
+    void getArtByNativeJsonFields_ShouldReadCachedIdsByPrimaryKey() {
+        // Given
+        Map<String, Object> filter = Map.of("price", 10);
+        Artifact found = artifact("a1");
+        when(artifactQueryCacheService.key(filter)).thenReturn("{\"price\":10}");
+        when(artifactQueryCacheService.get("{\"price\":10}")).thenReturn(List.of(found.getId()));
+        when(artifactDao.findByIds(List.of(found.getId()))).thenReturn(List.of(found));
+
+        // When
+        ArtifactDto result = artifactService.getArtByNativeJsonFields(filter);
+
+        // Then
+        assertEquals("a1", result.getName());
+        verify(artifactDao, never()).findPageByJson(anyMap(), any(), anyInt());
+        verifyNoInteractions(payloadIndexService);
+    }
+
+    @Test
+    void getPageByRange_ShouldPageByCursor() {
+        // Given
+        UUID after = UUID.randomUUID();
+        when(artifactDao.findPageByRange("price", 10L, null, after, 3)).thenReturn(List.of(artifact("a1")));
+
+        // When
+        ArtifactPageDto page = artifactService.getPageByRange("price", 10L, null, KeysetCursor.encode(after), null);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void aggregate_ShouldFlagTruncatedGroups() {
+        // Given
+        Map<String, Object> filter = Map.of("series", "S1");
+        List<String> groupBy = List.of("department");
+        when(artifactDao.aggregate(groupBy, "price", filter, 3)).thenReturn(List.of(group("a"), group("b"), group("c")));
+
+        // When
+        ArtifactAggregationDto result = artifactService.aggregate(new ArtifactAggregationRequest(groupBy, "price", filter));
+
+        // Then
+        assertTrue(result.isTruncated());
+        assertEquals(2, result.getGroups().size());
+        verify(payloadIndexService).record(eq(Set.of("series")), anyLong());
+    }
+
+    @Test
+    void aggregate_ShouldRejectDuplicateGroupKeys() {
+        // Given
+        ArtifactAggregationRequest request = new ArtifactAggregationRequest(List.of("department", "department"), null, null);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> artifactService.aggregate(request));
+        verifyNoInteractions(artifactDao);
+    }
+
+    @Test
+    void getCustomByIds_ShouldKeepRequestOrderAndReportMissing() {
+        // Given
+        UUID first = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Set<String> fields = Set.of("name");
+        Tuple firstRow = mock(Tuple.class);
+        Tuple secondRow = mock(Tuple.class);
+        when(artifactRepository.findProjectedByIds(anyCollection(), eq(fields)))
+                .thenReturn(Map.of(second, secondRow, first, firstRow));
+        Map<Tuple, String> names = Map.of(firstRow, "first", secondRow, "second");
+        when(dynamicDtoMapper.mapperFor(fields, ArtifactDto.class))
+                .thenReturn(row -> ArtifactDto.builder().name(names.get(row)).build());
+
+        // When
+        CustomArtifactBatchDto result = artifactService.getCustomByIds(new CustomArtifactBatchRequest(List.of(first, missing, second), fields));
+
+        // Then
+        assertEquals(List.of("first", "second"), result.getItems().stream().map(ArtifactDto::getName).toList());
+        assertEquals(List.of(missing), result.getMissingIds());
+        verify(artifactRepository, times(1)).findProjectedByIds(anyCollection(), eq(fields));
+        verify(dynamicDtoMapper, times(1)).mapperFor(fields, ArtifactDto.class);
+    }
+
+    @Test
+    void getCustomByIds_ShouldRejectOversizedBatch() {
+        // Given
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> artifactService.getCustomByIds(new CustomArtifactBatchRequest(ids, Set.of("name"))));
+        verifyNoInteractions(artifactRepository);
+    }
+
+    private static ArtifactAggregationDto.Group group(String department) {
+        return ArtifactAggregationDto.Group.builder().key(Map.of("department", department)).count(1).build();
+    }
+
+    private static Artifact artifact(String name) {
+        return Artifact.builder().id(UUID.randomUUID()).name(name).surname("s").payload(Map.of("department", "x")).build();
+    }
+
+    private static InputStream ndjson(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
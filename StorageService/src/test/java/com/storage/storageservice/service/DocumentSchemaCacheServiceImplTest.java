@@ -0,0 +1,146 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.model.PropertyType;
+import com.storage.storageservice.repository.DocumentTypeRepository;
+import com.storage.storageservice.repository.PropertyTypeRepository;
+import com.storage.storageservice.repository.PropertyTypeRepository.PropertyTypeRef;
+import com.storage.storageservice.service.impl.DocumentSchemaCacheServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.module.FindException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentSchemaCacheServiceImplTest {
+
+    private final UUID documentTypeId = UUID.randomUUID();
+    private final UUID seriesId = UUID.randomUUID();
+    private final PropertyTypeRepository propertyTypeRepository = mock(PropertyTypeRepository.class);
+    private final DocumentTypeRepository documentTypeRepository = mock(DocumentTypeRepository.class);
+
+    private DocumentSchemaCacheServiceImpl schemaCache;
+
+    @BeforeEach
+    void setUp() {
+        when(propertyTypeRepository.findAllRefs()).thenReturn(List.of(new Ref(documentTypeId, "series", seriesId)));
+        when(propertyTypeRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            PropertyType propertyType = new PropertyType();
+            propertyType.setId(invocation.getArgument(0));
+            return propertyType;
+        });
+        schemaCache = new DocumentSchemaCacheServiceImpl(propertyTypeRepository, documentTypeRepository);
+        ReflectionTestUtils.setField(schemaCache, "maxTypes", 10L);
+        ReflectionTestUtils.setField(schemaCache, "minReloadIntervalMillis", 0L);
+        ReflectionTestUtils.invokeMethod(schemaCache, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resolve_ShouldUseSchemaWarmedAtStartup() {
+        // When
+        PropertyType first = schemaCache.resolve(documentTypeId, "series");
+        PropertyType second = schemaCache.resolve(documentTypeId, "series");
+
+        // Then
+        assertEquals(seriesId, first.getId());
+        assertEquals(seriesId, second.getId());
+        verify(propertyTypeRepository, never()).findRefsByDocumentTypeId(any());
+    }
+
+    @Test
+    void resolve_ShouldReloadSchemaWhenPropertyIsMissing() {
+        // Given
+        UUID numberId = UUID.randomUUID();
+        when(propertyTypeRepository.findRefsByDocumentTypeId(documentTypeId)).thenReturn(List.of(
+                new Ref(documentTypeId, "series", seriesId), new Ref(documentTypeId, "number", numberId)));
+
+        // When
+        PropertyType number = schemaCache.resolve(documentTypeId, "number");
+
+        // Then
+        assertEquals(numberId, number.getId());
+        assertThrows(FindException.class, () -> schemaCache.resolve(documentTypeId, "unknown"));
+        verify(propertyTypeRepository, times(2)).findRefsByDocumentTypeId(documentTypeId);
+    }
+
+    @Test
+    void schema_ShouldNotReloadRecentlyLoadedSchemaForUnknownNames() {
+        // Given
+        ReflectionTestUtils.setField(schemaCache, "minReloadIntervalMillis", 60_000L);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertNull(schemaCache.schema(documentTypeId, List.of("misspelled")).get("misspelled"));
+        }
+
+        // Then
+        verify(propertyTypeRepository, never()).findRefsByDocumentTypeId(any());
+    }
+
+    @Test
+    void schema_ShouldNotCacheUnknownDocumentType() {
+        // Given
+        UUID unknownTypeId = UUID.randomUUID();
+        UUID emptyTypeId = UUID.randomUUID();
+        when(documentTypeRepository.existsById(emptyTypeId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(FindException.class, () -> schemaCache.schema(unknownTypeId, List.of("series")));
+        assertThrows(FindException.class, () -> schemaCache.schema(unknownTypeId, List.of("series")));
+        assertEquals(Map.of(), schemaCache.schema(emptyTypeId, List.of()));
+        assertEquals(Map.of(), schemaCache.schema(emptyTypeId, List.of()));
+        verify(propertyTypeRepository, times(2)).findRefsByDocumentTypeId(unknownTypeId);
+        verify(propertyTypeRepository, times(1)).findRefsByDocumentTypeId(emptyTypeId);
+    }
+
+    @Test
+    void invalidate_ShouldWaitForCommitInsideTransaction() {
+        // Given
+        UUID otherTypeId = UUID.randomUUID();
+        when(propertyTypeRepository.findRefsByDocumentTypeId(otherTypeId))
+                .thenReturn(List.of(new Ref(otherTypeId, "series", UUID.randomUUID())));
+        schemaCache.resolve(otherTypeId, "series");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        schemaCache.invalidate(otherTypeId);
+        schemaCache.resolve(otherTypeId, "series");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        schemaCache.resolve(otherTypeId, "series");
+
+        // Then
+        verify(propertyTypeRepository, times(2)).findRefsByDocumentTypeId(otherTypeId);
+    }
+
+    private record Ref(UUID documentTypeId, String propertyName, UUID id) implements PropertyTypeRef {
+        @Override
+        public UUID getDocumentTypeId() {
+            return documentTypeId;
+        }
+
+        @Override
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+    }
+}
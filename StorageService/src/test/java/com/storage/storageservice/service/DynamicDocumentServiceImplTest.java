@@ -0,0 +1,332 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dao.DynamicDocumentDao;
+import com.storage.storageservice.dao.DynamicDocumentDao.FieldCondition;
+import com.storage.storageservice.dto.DynamicDocumentBulkReportDto;
+import com.storage.storageservice.dto.DynamicDocumentBulkRequest;
+import com.storage.storageservice.dto.DynamicDocumentDto;
+import com.storage.storageservice.dto.DynamicDocumentPageDto;
+import com.storage.storageservice.dto.DynamicDocumentQueryRequest;
+import com.storage.storageservice.dto.DynamicDocumentQueryRequest.Operator;
+import com.storage.storageservice.dto.DynamicFieldDto;
+import com.storage.storageservice.model.DynamicDocument;
+import com.storage.storageservice.model.FieldContentType;
+import com.storage.storageservice.repository.DynamicDocumentRepository;
+import com.storage.storageservice.service.impl.DynamicDocumentServiceImpl;
+import com.storage.storageservice.utils.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.module.FindException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DynamicDocumentServiceImplTest {
+
+    private final UUID documentTypeId = UUID.randomUUID();
+    private final UUID seriesId = UUID.randomUUID();
+
+    @Mock
+    private DynamicDocumentRepository dynamicDocumentRepository;
+
+    @Mock
+    private DocumentSchemaCacheService documentSchemaCacheService;
+
+    @Mock
+    private DocumentTypeService documentTypeService;
+
+    @Mock
+    private DynamicDocumentBatchService dynamicDocumentBatchService;
+
+    @Mock
+    private DynamicDocumentDao dynamicDocumentDao;
+
+    @InjectMocks
+    private DynamicDocumentServiceImpl dynamicDocumentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dynamicDocumentService, "bulkBatchSize", 2);
+        ReflectionTestUtils.setField(dynamicDocumentService, "maxBulkDocuments", 10);
+        ReflectionTestUtils.setField(dynamicDocumentService, "defaultQueryPageSize", 2);
+        ReflectionTestUtils.setField(dynamicDocumentService, "maxQueryPageSize", 5);
+        ReflectionTestUtils.setField(dynamicDocumentService, "maxQueryPredicates", 3);
+        ReflectionTestUtils.setField(dynamicDocumentService, "maxInValues", 2);
+    }
+
+    @Test
+    void addDocuments_ShouldWriteValidDocumentsInBatchesAndReportInvalidOnes() {
+        // Given
+        when(documentSchemaCacheService.schema(eq(documentTypeId), anySet())).thenReturn(Map.of("series", seriesId));
+        List<List<DynamicDocument>> batches = new ArrayList<>();
+        when(dynamicDocumentBatchService.copyBatch(anyList())).thenAnswer(invocation -> {
+            List<DynamicDocument> batch = List.copyOf(invocation.getArgument(0));
+            batches.add(batch);
+            return (long) batch.size();
+        });
+
+        // When
+        DynamicDocumentBulkReportDto report = dynamicDocumentService.addDocuments(request(
+                document("a", field("series", "string", "1234")),
+                document("b", field("unknown", "string", "x")),
+                document("c", field("series", "number", "five")),
+                document("d", field("series", "STRING", "5678")),
+                document("e")));
+
+        // Then
+        assertEquals(5, report.getReceived());
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of(1, 2), report.getFailedDocuments().stream()
+                .map(DynamicDocumentBulkReportDto.FailedDocument::getIndex)
+                .toList());
+        assertEquals(2, batches.size());
+        DynamicDocument first = batches.getFirst().getFirst();
+        assertEquals(seriesId, first.getStringDynamicFields().iterator().next().getPropertyType().getId());
+        assertNotNull(first.getId());
+        verify(documentSchemaCacheService).schema(documentTypeId, Set.of("series", "unknown"));
+    }
+
+    @Test
+    void addDocuments_ShouldRouteValuesToTypedFieldsByContentType() {
+        // Given
+        when(documentSchemaCacheService.schema(eq(documentTypeId), anySet())).thenReturn(Map.of("series", seriesId));
+        List<DynamicDocument> written = new ArrayList<>();
+        when(dynamicDocumentBatchService.copyBatch(anyList())).thenAnswer(invocation -> {
+            written.addAll(invocation.getArgument(0));
+            return 0L;
+        });
+
+        // When
+        dynamicDocumentService.addDocuments(request(document("a",
+                field("series", "string", "1234"),
+                field("series", "number", 42),
+                field("series", "decimal", "0.10"),
+                field("series", "boolean", true),
+                field("series", "timestamp", "2024-05-01"))));
+
+        // Then
+        DynamicDocument document = written.getFirst();
+        assertEquals(42L, document.getLongDynamicFields().iterator().next().getPropertyValue());
+        assertEquals(new BigDecimal("0.10"), document.getDecimalDynamicFields().iterator().next().getPropertyValue());
+        assertEquals(true, document.getBooleanDynamicFields().iterator().next().getPropertyValue());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 0, 0), document.getTimestampDynamicFields().iterator().next().getPropertyValue());
+        assertEquals(5, document.dynamicFields().count());
+        assertEquals(List.of("1234", 42L, new BigDecimal("0.10"), true, "2024-05-01T00:00"), document.getFields().get("series"));
+        assertTrue(document.dynamicFields().allMatch(field -> field.getId() != null && field.getDynamicDocument() == document));
+    }
+
+    @Test
+    void addDocuments_ShouldRetryFailedBatchDownToSingleDocuments() {
+        // Given
+        when(documentSchemaCacheService.schema(eq(documentTypeId), anySet())).thenReturn(Map.of());
+        when(dynamicDocumentBatchService.copyBatch(anyList())).thenAnswer(invocation -> {
+            List<DynamicDocument> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(document -> document.getName().equals("bad"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return 0L;
+        });
+
+        // When
+        DynamicDocumentBulkReportDto report = dynamicDocumentService.addDocuments(request(document("good"), document("bad")));
+
+        // Then
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getFailedDocuments().getFirst().getIndex());
+        assertEquals("value too long", report.getFailedDocuments().getFirst().getError());
+        verify(dynamicDocumentBatchService, times(3)).copyBatch(anyList());
+    }
+
+    @Test
+    void addDocuments_ShouldSplitFailedBatchInHalves() {
+        // Given
+        ReflectionTestUtils.setField(dynamicDocumentService, "bulkBatchSize", 8);
+        when(documentSchemaCacheService.schema(eq(documentTypeId), anySet())).thenReturn(Map.of());
+        List<Integer> batchSizes = new ArrayList<>();
+        when(dynamicDocumentBatchService.copyBatch(anyList())).thenAnswer(invocation -> {
+            List<DynamicDocument> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            if (batch.stream().anyMatch(document -> document.getName().equals("bad"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return 0L;
+        });
+        DynamicDocumentDto[] documents = new DynamicDocumentDto[8];
+        Arrays.fill(documents, document("good"));
+        documents[5] = document("bad");
+
+        // When
+        DynamicDocumentBulkReportDto report = dynamicDocumentService.addDocuments(request(documents));
+
+        // Then
+        assertEquals(7, report.getImported());
+        assertEquals(5, report.getFailedDocuments().getFirst().getIndex());
+        assertEquals(List.of(8, 4, 4, 2, 1, 1, 2), batchSizes);
+    }
+
+    @Test
+    void addDocuments_ShouldFailFastOnErrorsNotCausedByDocuments() {
+        // Given
+        when(documentSchemaCacheService.schema(eq(documentTypeId), anySet())).thenReturn(Map.of());
+        when(dynamicDocumentBatchService.copyBatch(anyList()))
+                .thenThrow(new CannotGetJdbcConnectionException("Connection is not available, request timed out"));
+
+        // When & Then
+        assertThrows(CannotGetJdbcConnectionException.class,
+                () -> dynamicDocumentService.addDocuments(request(document("a"), document("b"))));
+        verify(dynamicDocumentBatchService, times(1)).copyBatch(anyList());
+    }
+
+    @Test
+    void addDocuments_ShouldRejectUnknownDocumentTypeAndOversizedRequests() {
+        // Given
+        when(documentTypeService.getDocumentTypeById(documentTypeId)).thenThrow(new FindException("not found"));
+        DynamicDocumentDto[] tooMany = new DynamicDocumentDto[11];
+        Arrays.fill(tooMany, document("a"));
+
+        // When & Then
+        assertThrows(FindException.class, () -> dynamicDocumentService.addDocuments(request(document("a"))));
+        assertThrows(IllegalArgumentException.class, () -> dynamicDocumentService.addDocuments(request(tooMany)));
+        verifyNoInteractions(dynamicDocumentBatchService);
+    }
+
+    @Test
+    void query_ShouldConvertPredicatesAndPivotFieldsOfThePage() {
+        // Given
+        UUID ageId = UUID.randomUUID();
+        when(documentSchemaCacheService.schema(eq(documentTypeId), anyCollection()))
+                .thenReturn(Map.of("series", seriesId, "age", ageId));
+        List<DynamicDocumentPageDto.Item> rows = List.of(item(null), item(null), item(null));
+        when(dynamicDocumentDao.findPage(anyList(), isNull(), eq(3))).thenReturn(rows);
+        when(dynamicDocumentDao.findFields(List.of(rows.get(0).getId(), rows.get(1).getId())))
+                .thenReturn(Map.of(rows.get(0).getId(), Map.of("age", 42L)));
+
+        // When
+        DynamicDocumentPageDto page = dynamicDocumentService.query(DynamicDocumentQueryRequest.builder()
+                .documentTypeId(documentTypeId)
+                .predicates(List.of(
+                        predicate("series", null, Operator.PREFIX, "12"),
+                        DynamicDocumentQueryRequest.Predicate.builder()
+                                .propertyName("age").contentType("number").operator(Operator.RANGE).from("18").build()))
+                .build());
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertEquals(Map.of("age", 42L), page.getItems().get(0).getFields());
+        assertEquals(Map.of(), page.getItems().get(1).getFields());
+        assertEquals(KeysetCursor.encode(rows.get(1).getId()), page.getNextCursor());
+        verify(dynamicDocumentDao).findPage(eq(List.of(
+                new FieldCondition(seriesId, FieldContentType.STRING, Operator.PREFIX, List.of("12")),
+                new FieldCondition(ageId, FieldContentType.NUMBER, Operator.RANGE, Arrays.asList(18L, null)))), isNull(), eq(3));
+    }
+
+    @Test
+    void getPage_ShouldServeSnapshotsAndPivotOnlyDocumentsWithoutOne() {
+        // Given
+        UUID afterId = UUID.randomUUID();
+        DynamicDocumentPageDto.Item withSnapshot = item(Map.of("series", "1234"));
+        DynamicDocumentPageDto.Item withoutSnapshot = item(null);
+        when(dynamicDocumentDao.findPage(afterId, 6)).thenReturn(List.of(withSnapshot, withoutSnapshot));
+        when(dynamicDocumentDao.findFields(List.of(withoutSnapshot.getId())))
+                .thenReturn(Map.of(withoutSnapshot.getId(), Map.of("age", 42L)));
+
+        // When
+        DynamicDocumentPageDto page = dynamicDocumentService.getPage(KeysetCursor.encode(afterId), 100);
+
+        // Then
+        assertEquals(Map.of("series", "1234"), page.getItems().get(0).getFields());
+        assertEquals(Map.of("age", 42L), page.getItems().get(1).getFields());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getDocument_ShouldReadSnapshotOrThrowWhenMissing() {
+        // Given
+        DynamicDocumentPageDto.Item item = item(Map.of("series", "1234"));
+        UUID missingId = UUID.randomUUID();
+        when(dynamicDocumentDao.findById(item.getId())).thenReturn(Optional.of(item));
+        when(dynamicDocumentDao.findById(missingId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertSame(item, dynamicDocumentService.getDocument(item.getId()));
+        assertThrows(FindException.class, () -> dynamicDocumentService.getDocument(missingId));
+        verify(dynamicDocumentDao, never()).findFields(anyCollection());
+    }
+
+    @Test
+    void query_ShouldRejectInvalidPredicates() {
+        // Given
+        when(documentSchemaCacheService.schema(eq(documentTypeId), anyCollection())).thenReturn(Map.of("series", seriesId));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> query());
+        assertThrows(IllegalArgumentException.class, () -> query(predicate("unknown", null, Operator.EQ, "x")));
+        assertThrows(IllegalArgumentException.class, () -> query(predicate(null, null, Operator.EQ, "x")));
+        assertThrows(IllegalArgumentException.class, () -> query(predicate("series", "number", Operator.EQ, "x")));
+        assertThrows(IllegalArgumentException.class, () -> query(predicate("series", "number", Operator.PREFIX, "1")));
+        assertThrows(IllegalArgumentException.class, () -> query(predicate("series", null, Operator.RANGE, null)));
+        assertThrows(IllegalArgumentException.class, () -> query(DynamicDocumentQueryRequest.Predicate.builder()
+                .propertyName("series").operator(Operator.IN).values(List.of("a", "b", "c")).build()));
+        verifyNoInteractions(dynamicDocumentDao);
+    }
+
+    private void query(DynamicDocumentQueryRequest.Predicate... predicates) {
+        dynamicDocumentService.query(new DynamicDocumentQueryRequest(documentTypeId, List.of(predicates), null, null));
+    }
+
+    private static DynamicDocumentQueryRequest.Predicate predicate(String propertyName, String contentType, Operator operator,
+                                                                   Object value) {
+        return DynamicDocumentQueryRequest.Predicate.builder()
+                .propertyName(propertyName)
+                .contentType(contentType)
+                .operator(operator)
+                .value(value)
+                .build();
+    }
+
+    private static DynamicDocumentPageDto.Item item(Map<String, Object> fields) {
+        return DynamicDocumentPageDto.Item.builder()
+                .id(UUID.randomUUID())
+                .name("name")
+                .surname("surname")
+                .fields(fields)
+                .build();
+    }
+
+    private DynamicDocumentBulkRequest request(DynamicDocumentDto... documents) {
+        return new DynamicDocumentBulkRequest(documentTypeId, List.of(documents));
+    }
+
+    private static DynamicDocumentDto document(String name, DynamicFieldDto... fields) {
+        return DynamicDocumentDto.builder()
+                .name(name)
+                .surname("surname")
+                .dynamicFields(List.of(fields))
+                .build();
+    }
+
+    private static DynamicFieldDto field(String propertyName, String contentType, Object value) {
+        return new DynamicFieldDto(propertyName, contentType, value);
+    }
+}
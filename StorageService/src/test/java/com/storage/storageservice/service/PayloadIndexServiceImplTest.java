@@ -0,0 +1,139 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.config.PromotedPayloadProperties;
+import com.storage.storageservice.dao.PayloadIndexDao;
+import com.storage.storageservice.dto.PayloadIndexAdviceDto;
+import com.storage.storageservice.service.impl.PayloadIndexServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadIndexServiceImplTest {
+
+    private static final long TEN_MILLIS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Mock
+    private PayloadIndexDao payloadIndexDao;
+
+    @Spy
+    private PromotedPayloadProperties promotedPayloadProperties = new PromotedPayloadProperties();
+
+    @InjectMocks
+    private PayloadIndexServiceImpl payloadIndexService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(payloadIndexService, "minCalls", 3L);
+        ReflectionTestUtils.setField(payloadIndexService, "minAvgMillis", 1.0);
+    }
+
+    @Test
+    void getAdvice_ShouldProposeGinForFrequentContainmentLookups() {
+        // Given
+        when(payloadIndexDao.findArtifactIndexes()).thenReturn(Map.of("artifact_pkey", "CREATE UNIQUE INDEX ..."));
+        repeat(3, () -> payloadIndexService.record(List.of("series", "department"), TEN_MILLIS));
+
+        // When
+        List<PayloadIndexAdviceDto> advice = payloadIndexService.getAdvice();
+
+        // Then
+        assertEquals(1, advice.size());
+        PayloadIndexAdviceDto gin = advice.get(0);
+        assertEquals("artifact_payload_path_ops_idx", gin.getIndexName());
+        assertEquals(List.of("department", "series"), gin.getKeys());
+        assertEquals(3, gin.getCalls());
+        assertEquals(10.0, gin.getAvgMillis(), 0.001);
+        assertTrue(gin.getDdl().contains("USING gin (payload jsonb_path_ops)"));
+        assertFalse(gin.isExists());
+    }
+
+    @Test
+    void getAdvice_ShouldSkipRareAndFastLookups() {
+        // Given
+        repeat(2, () -> payloadIndexService.record(List.of("rare"), TEN_MILLIS));
+
+        // When & Then
+        assertTrue(payloadIndexService.getAdvice().isEmpty());
+        // 22 вызова, в среднем меньше миллисекунды
+        repeat(20, () -> payloadIndexService.record(List.of("fast"), 1_000));
+        assertTrue(payloadIndexService.getAdvice().isEmpty());
+        verifyNoInteractions(payloadIndexDao);
+    }
+
+    @Test
+    void getAdvice_ShouldMarkExistingGinUnderAnotherName() {
+        // Given
+        when(payloadIndexDao.findArtifactIndexes()).thenReturn(Map.of("payload_gin",
+                "CREATE INDEX payload_gin ON public.artifact USING gin (payload jsonb_path_ops)"));
+        repeat(3, () -> payloadIndexService.record(List.of("series"), TEN_MILLIS));
+
+        // When & Then
+        assertTrue(payloadIndexService.getAdvice().getFirst().isExists());
+    }
+
+    @Test
+    void record_ShouldCountOnlyUnpromotedKeys() {
+        // Given
+        when(payloadIndexDao.findArtifactIndexes()).thenReturn(Map.of());
+        promotedPayloadProperties.getFields().put("price", PromotedPayloadProperties.ColumnType.BIGINT);
+        repeat(3, () -> payloadIndexService.record(List.of("color", "price"), TEN_MILLIS));
+        repeat(3, () -> payloadIndexService.record(List.of("price"), TEN_MILLIS));
+
+        // When
+        List<PayloadIndexAdviceDto> advice = payloadIndexService.getAdvice();
+
+        // Then
+        assertEquals(List.of("color"), advice.getFirst().getKeys());
+        assertEquals(3, advice.getFirst().getCalls());
+    }
+
+    @Test
+    void apply_ShouldCreateMissingIndexAndReportFailure() {
+        // Given
+        when(payloadIndexDao.findArtifactIndexes()).thenReturn(Map.of());
+        repeat(3, () -> payloadIndexService.record(List.of("series"), TEN_MILLIS));
+        doThrow(new IllegalStateException("lock timeout"))
+                .when(payloadIndexDao).createConcurrently(eq("artifact_payload_path_ops_idx"), anyString());
+
+        // When
+        Map<String, String> result = payloadIndexService.apply(List.of());
+
+        // Then
+        assertEquals(Map.of("artifact_payload_path_ops_idx", "lock timeout"), result);
+    }
+
+    @Test
+    void apply_ShouldCreateOnlyRequestedIndexes() {
+        // Given
+        when(payloadIndexDao.findArtifactIndexes()).thenReturn(Map.of());
+        repeat(3, () -> payloadIndexService.record(List.of("series"), TEN_MILLIS));
+
+        // When
+        Map<String, String> result = payloadIndexService.apply(List.of("artifact_payload_other_idx"));
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(payloadIndexDao, never()).createConcurrently(anyString(), anyString());
+    }
+
+    private static void repeat(int times, Runnable action) {
+        for (int i = 0; i < times; i++) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.storage.storageservice.service;
+
+import com.storage.storageservice.dao.SearchDao;
+import com.storage.storageservice.dto.SearchHitDto;
+import com.storage.storageservice.dto.SearchPageDto;
+import com.storage.storageservice.dto.SearchPageDto.Mode;
+import com.storage.storageservice.dto.SearchPageDto.Scope;
+import com.storage.storageservice.service.impl.SearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceImplTest {
+
+    @Mock
+    private SearchDao searchDao;
+
+    @InjectMocks
+    private SearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchService, "defaultLimit", 2);
+        ReflectionTestUtils.setField(searchService, "maxLimit", 5);
+        ReflectionTestUtils.setField(searchService, "maxOffset", 100);
+        ReflectionTestUtils.setField(searchService, "maxQueryLength", 10);
+    }
+
+    @Test
+    void search_ShouldReturnNextOffsetWhenMoreHitsExist() {
+        // Given
+        when(searchDao.search("petr", Mode.PREFIX, Scope.ALL, 3, 4)).thenReturn(hits(3));
+
+        // When
+        SearchPageDto page = searchService.search("  petr ", Mode.PREFIX, Scope.ALL, null, 4);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertEquals(6, page.getNextOffset());
+    }
+
+    @Test
+    void search_ShouldOmitNextOffsetOnLastPage() {
+        // Given
+        when(searchDao.search("petr", Mode.SUBSTRING, Scope.ARTIFACT, 6, 0)).thenReturn(hits(1));
+
+        // When
+        SearchPageDto page = searchService.search("petr", Mode.SUBSTRING, Scope.ARTIFACT, 50, 0);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextOffset());
+    }
+
+    @Test
+    void search_ShouldRejectBlankOrLongQueriesAndDeepOffsets() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("  ", Mode.PREFIX, Scope.ALL, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("x".repeat(11), Mode.PREFIX, Scope.ALL, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("petr", Mode.PREFIX, Scope.ALL, null, 101));
+        verifyNoInteractions(searchDao);
+    }
+
+    @Test
+    void search_ShouldRejectQueriesWithoutTrigramsExceptPrefixes() {
+        // Given
+        when(searchDao.search("pe", Mode.PREFIX, Scope.ALL, 3, 0)).thenReturn(hits(1));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("pe", Mode.SUBSTRING, Scope.ALL, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(" p ", Mode.SIMILAR, Scope.ALL, null, 0));
+        assertEquals(1, searchService.search("pe", Mode.PREFIX, Scope.ALL, null, 0).getItems().size());
+    }
+
+    private static List<SearchHitDto> hits(int count) {
+        return Collections.nCopies(count, SearchHitDto.builder()
+                .kind(SearchHitDto.Kind.ARTIFACT)
+                .id(UUID.randomUUID())
+                .name("Petrov")
+                .build());
+    }
+}
@@ -0,0 +1,110 @@
+package com.storage.storageservice.utils;
+
+import com.storage.storageservice.dto.ArtifactDto;
+import com.storage.storageservice.dto.EmployeeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtifactRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final ArtifactRedisSerializer binary = new ArtifactRedisSerializer(json, true, 512);
+
+    @Test
+    void serialize_ShouldRoundTripArtifactTree() {
+        ArtifactDto artifact = artifact("root", 2);
+
+        byte[] bytes = binary.serialize(artifact);
+
+        assertEquals(ArtifactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(artifact, binary.deserialize(bytes));
+    }
+
+    @Test
+    void serialize_ShouldCompressLargeEntries() {
+        ArtifactDto artifact = artifact("root", 3);
+
+        byte[] bytes = binary.serialize(artifact);
+        byte[] uncompressed = new ArtifactRedisSerializer(json, true, Integer.MAX_VALUE).serialize(artifact);
+
+        assertEquals(1, bytes[2]);
+        assertTrue(bytes.length < uncompressed.length);
+        assertEquals(artifact, binary.deserialize(bytes));
+    }
+
+    @Test
+    void serialize_ShouldBeSmallerThanJson() {
+        ArtifactDto artifact = artifact("root", 0);
+
+        assertTrue(binary.serialize(artifact).length < json.serialize(artifact).length);
+    }
+
+    @Test
+    void deserialize_ShouldReadEntriesWrittenAsJson() {
+        ArtifactDto artifact = artifact("root", 1);
+
+        assertEquals(artifact, binary.deserialize(json.serialize(artifact)));
+    }
+
+    @Test
+    void serialize_ShouldWriteJson_WhenBinaryWritesAreOff() {
+        ArtifactDto artifact = artifact("root", 0);
+        ArtifactRedisSerializer jsonWrites = new ArtifactRedisSerializer(json, false, 512);
+
+        assertArrayEquals(json.serialize(artifact), jsonWrites.serialize(artifact));
+    }
+
+    @Test
+    void deserialize_ShouldTreatUnknownFormatVersionAsMiss() {
+        byte[] bytes = binary.serialize(artifact("root", 0));
+        bytes[1] = (byte) (ArtifactRedisSerializer.FORMAT_VERSION + 1);
+
+        assertNull(binary.deserialize(bytes));
+    }
+
+    @Test
+    void serialize_ShouldDelegateOtherValuesToFallback() {
+        byte[] bytes = binary.serialize("plain");
+
+        assertArrayEquals(json.serialize("plain"), bytes);
+        assertEquals("plain", binary.deserialize(bytes));
+    }
+
+    private static ArtifactDto artifact(String name, int depth) {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("flag", true);
+        nested.put("missing", null);
+        nested.put("tags", Arrays.asList("a", "б", 3));
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("series", "A-" + name);
+        payload.put("price", -1250);
+        payload.put("big", 9_000_000_000L);
+        payload.put("ratio", 0.25);
+        payload.put("huge", new BigInteger("123456789012345678901234567890"));
+        payload.put("exact", new BigDecimal("10.50"));
+        payload.put("nested", nested);
+
+        List<ArtifactDto> children = depth == 0 ? null : List.of(
+                artifact(name + ".1", depth - 1),
+                artifact(name + ".2", depth - 1));
+        return ArtifactDto.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .surname(null)
+                .payload(payload)
+                .children(children)
+                .employee(new EmployeeDto("Иван", "Petrov"))
+                .build();
+    }
+}
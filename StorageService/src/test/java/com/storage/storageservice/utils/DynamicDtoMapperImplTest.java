@@ -0,0 +1,101 @@
+package com.storage.storageservice.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storage.storageservice.dto.ArtifactDto;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DynamicDtoMapperImplTest {
+
+    private final DynamicDtoMapperImpl mapper = new DynamicDtoMapperImpl(new ObjectMapper());
+
+    @Test
+    void mapToDto_ShouldSetTopLevelAndNestedFields() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Tuple tuple = tuple("id", id, "name", "Pump", "employee.surname", "Petrov");
+
+        // When
+        ArtifactDto dto = mapper.mapToDto(tuple, Set.of("id", "name", "employee.surname"), ArtifactDto.class);
+
+        // Then
+        assertEquals(id, dto.getId());
+        assertEquals("Pump", dto.getName());
+        assertEquals("Petrov", dto.getEmployee().getSurname());
+        assertNull(dto.getEmployee().getName());
+    }
+
+    @Test
+    void mapToDto_ShouldSkipUnknownPathsAndMissingAliases() {
+        // Given
+        Tuple tuple = tuple("surname", null);
+
+        // When
+        ArtifactDto dto = mapper.mapToDto(tuple, Set.of("name", "surname", "unknown", "employee.unknown"), ArtifactDto.class);
+
+        // Then
+        assertNull(dto.getName());
+        assertNull(dto.getEmployee());
+        verify(tuple, never()).get(anyString());
+    }
+
+    @Test
+    void mapperFor_ShouldReadEveryRowByPositionsOfTheFirst() {
+        // Given
+        Tuple first = tuple("employee.name", "Ivan", "name", "a");
+        Tuple second = tuple("employee.name", null, "name", "b");
+
+        // When
+        DynamicDtoMapper.TupleMapper<ArtifactDto> rowMapper = mapper.mapperFor(Set.of("name", "employee.name"), ArtifactDto.class);
+        ArtifactDto a = rowMapper.map(first);
+        ArtifactDto b = rowMapper.map(second);
+
+        // Then
+        assertEquals("Ivan", a.getEmployee().getName());
+        assertEquals("b", b.getName());
+        assertNull(b.getEmployee());
+        verify(second, never()).getElements();
+        verify(second, never()).get(anyString());
+    }
+
+    @Test
+    void mapToDto_ShouldPutJsonFragmentsIntoNestedPayloadMap() {
+        // Given
+        Tuple tuple = tuple("payload.series", "\"S-1\"", "payload.meta.tags", "[\"a\", \"b\"]",
+                "payload.meta.weight", "42", "payload.absent", null);
+
+        // When
+        ArtifactDto dto = mapper.mapToDto(tuple,
+                Set.of("payload.series", "payload.meta.tags", "payload.meta.weight", "payload.absent"), ArtifactDto.class);
+
+        // Then
+        assertEquals(Map.of("series", "S-1", "meta", Map.of("tags", List.of("a", "b"), "weight", 42)), dto.getPayload());
+    }
+
+    /**
+     * Tuple with the given alias, value pairs in select-list order.
+     */
+    private static Tuple tuple(Object... aliasValues) {
+        Tuple tuple = mock(Tuple.class);
+        List<TupleElement<?>> elements = new ArrayList<>();
+        for (int i = 0; i < aliasValues.length; i += 2) {
+            TupleElement<?> element = mock(TupleElement.class);
+            when(element.getAlias()).thenReturn((String) aliasValues[i]);
+            elements.add(element);
+            when(tuple.get(i / 2)).thenReturn(aliasValues[i + 1]);
+        }
+        when(tuple.getElements()).thenReturn(elements);
+        return tuple;
+    }
+}
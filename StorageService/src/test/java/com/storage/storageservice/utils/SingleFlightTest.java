@@ -0,0 +1,107 @@
+package com.storage.storageservice.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void load_ShouldRunLoaderOnceForConcurrentCallers() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch arrived = new CountDownLatch(CALLERS);
+
+        // When
+        List<Future<String>> results = callConcurrently(arrived, () -> {
+            loads.incrementAndGet();
+            awaitQuietly(arrived);
+            sleepQuietly(200);
+            return "value";
+        });
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void load_ShouldShareLoaderExceptionWithWaiters() throws Exception {
+        // Given
+        CountDownLatch arrived = new CountDownLatch(CALLERS);
+
+        // When
+        List<Future<String>> results = callConcurrently(arrived, () -> {
+            awaitQuietly(arrived);
+            sleepQuietly(200);
+            throw new NoSuchElementException("missing");
+        });
+
+        // Then
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NoSuchElementException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void load_ShouldLoadAgainAfterPreviousFlightFinished() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load("key", () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.load("key", () -> "v" + loads.incrementAndGet());
+
+        assertEquals("v2", second);
+    }
+
+    private List<Future<String>> callConcurrently(CountDownLatch arrived, java.util.function.Supplier<String> loader) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                arrived.countDown();
+                return singleFlight.load("key", loader);
+            }));
+        }
+        return results;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}